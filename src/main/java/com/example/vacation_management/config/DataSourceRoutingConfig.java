@@ -0,0 +1,84 @@
+package com.example.vacation_management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica pool when {@code datasource.replica.jdbc-url} is set.
+ * The lazy proxy hands out a connection handle without touching either pool, and only picks one
+ * at the first statement, once Spring has registered the transaction of a
+ * {@code @Transactional(readOnly = true)} method as read-only. Everything else, including work
+ * outside a transaction boundary, goes to the primary configured under {@code spring.datasource}.
+ *
+ * <p>Reads served under an ETag or kept in a cache stay in read-write transactions: their
+ * versions move on commit to the primary, and a lagging replica would hand out stale data
+ * under the new version.
+ *
+ * <p>Hibernate releases the connection after every transaction. Spring's default of holding it for
+ * the session would, with open-in-view, pin a whole request to whichever pool its first
+ * transaction picked, and a write after a read-only lookup would then run on the replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.jdbc-url")
+public class DataSourceRoutingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceRoutingConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") HikariDataSource replica) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            }
+        };
+        routing.setTargetDataSources(Map.of(false, primary, true, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        logger.info("Routing read-only transactions to replica {}", replica.getJdbcUrl());
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.example.vacation_management.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the pooled id sequences past the ids already present in tables that were created with
+ * identity columns, so the first pooled block does not collide with existing rows.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class IdSequenceInitializer implements CommandLineRunner {
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "users_seq", "users",
+            "leave_balances_seq", "leave_balances"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+
+        SEQUENCES.forEach((sequence, table) -> {
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST(" +
+                            "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + ", " +
+                            "(SELECT last_value FROM " + sequence + ")))", Long.class);
+            logger.info("Sequence {} aligned with {} at {}", sequence, table, value);
+        });
+    }
+}
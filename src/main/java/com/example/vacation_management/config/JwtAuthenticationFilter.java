@@ -2,6 +2,9 @@ package com.example.vacation_management.config;
 
 
 import com.example.vacation_management.service.JwtService;
+import com.example.vacation_management.service.OperationMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +30,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private OperationMetrics operationMetrics;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -42,35 +48,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
 
+        Timer.Sample sample = operationMetrics.start();
+        String outcome = "invalid";
         try {
-            userEmail = jwtService.extractEmail(jwt);
+            Claims claims = jwtService.verifyToken(jwt);
+            userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                if (jwtService.validateToken(jwt)) {
-
-                    String role = jwtService.extractRole(jwt);
-                    Long userId = jwtService.extractUserId(jwt);
+                String role = claims.get("role").toString();
+                Long userId = Long.valueOf(claims.get("userId").toString());
 
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userEmail,
-                            null,
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                    );
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userEmail,
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                );
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    request.setAttribute("userId", userId);
-                    request.setAttribute("userRole", role);
-                    request.setAttribute("userEmail", userEmail);
+                request.setAttribute("userId", userId);
+                request.setAttribute("userRole", role);
+                request.setAttribute("userEmail", userEmail);
+                request.setAttribute("userClaims", claims);
 
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                    logger.debug("User {} authenticated successfully", userEmail);
-                }
+                logger.debug("User {} authenticated successfully", userEmail);
             }
+            outcome = "authenticated";
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
+        } finally {
+            operationMetrics.stop(sample, "jwt.filter", outcome);
         }
 
         filterChain.doFilter(request, response);
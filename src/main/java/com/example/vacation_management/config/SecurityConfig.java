@@ -1,6 +1,7 @@
 package com.example.vacation_management.config;
 
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,14 +33,20 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/database/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         .requestMatchers("/api/users/**").hasRole("ADMIN")
                         .requestMatchers("/api/leave-balances/year/**").hasRole("ADMIN")
                         .requestMatchers("/api/leave-balances/user/**").hasRole("ADMIN")
                         .requestMatchers("/api/dashboard/**").hasRole("ADMIN")
                         .requestMatchers("/api/leave-requests/pending").hasRole("ADMIN")
+                        .requestMatchers("/api/leave-requests/events").hasRole("ADMIN")
+                        .requestMatchers("/api/leave-requests/export").hasRole("ADMIN")
+                        .requestMatchers("/api/leave-requests/bulk").hasRole("ADMIN")
                         .requestMatchers("/api/leave-requests/*/approve").hasRole("ADMIN")
                         .requestMatchers("/api/leave-requests/*/reject").hasRole("ADMIN")
 
@@ -6,6 +6,8 @@ import com.example.vacation_management.dto.LoginResponseDto;
 import com.example.vacation_management.dto.UserDto;
 import com.example.vacation_management.entity.User;
 import com.example.vacation_management.service.AuthService;
+import com.example.vacation_management.service.LoginThrottle;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -28,9 +30,14 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private LoginThrottle loginThrottle;
+
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest) {
+    public ResponseEntity<LoginResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest,
+                                                  HttpServletRequest request) {
         logger.info("Login attempt for email: {}", loginRequest.getEmail());
+        loginThrottle.acquire(loginRequest.getEmail(), request.getRemoteAddr());
         LoginResponseDto response = authService.login(loginRequest);
         return ResponseEntity.ok(response);
     }
@@ -68,28 +75,20 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<Map<String, Object>> getCurrentUser(HttpServletRequest request) {
+    public ResponseEntity<Map<String, Object>> getCurrentUser(
+            @RequestParam(defaultValue = "false") boolean fresh,
+            HttpServletRequest request) {
         Long userId = (Long) request.getAttribute("userId");
-        String userRole = (String) request.getAttribute("userRole");
+        Claims claims = (Claims) request.getAttribute("userClaims");
 
-        if (userId == null) {
+        if (userId == null || claims == null) {
             throw new RuntimeException("User not authenticated");
         }
 
-        String authHeader = request.getHeader("Authorization");
-        String token = authHeader.substring(7);
-
-        User user = authService.getUserFromToken(token);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("userId", user.getId());
-        response.put("email", user.getEmail());
-        response.put("firstName", user.getFirstName());
-        response.put("lastName", user.getLastName());
-        response.put("role", user.getRole());
-        response.put("createdAt", user.getCreatedAt());
-
-        return ResponseEntity.ok(response);
+        if (fresh) {
+            return ResponseEntity.ok(authService.getFreshProfile(userId));
+        }
+        return ResponseEntity.ok(authService.getProfileFromClaims(claims));
     }
 
 }
@@ -0,0 +1,25 @@
+package com.example.vacation_management.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Answers a GET with 304 when {@code If-None-Match} already names the current ETag, before the
+ * body supplier runs; otherwise returns the body tagged for revalidation on the next poll.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {}
+
+    static <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body.get());
+    }
+
+}
@@ -1,15 +1,24 @@
 package com.example.vacation_management.controller;
 
 
+import com.example.vacation_management.service.AggregateVersions;
+import com.example.vacation_management.service.AggregateVersions.Aggregate;
 import com.example.vacation_management.service.DashboardService;
+import com.example.vacation_management.service.LeaveOccupancyIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -20,10 +29,16 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private LeaveOccupancyIndex leaveOccupancyIndex;
+
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getDashboardStats() {
-        Map<String, Object> stats = dashboardService.getDashboardStats();
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<Map<String, Object>> getDashboardStats(WebRequest request) {
+        String etag = aggregateVersions.etag("stats/" + LocalDate.now(), Aggregate.LEAVE_REQUESTS, Aggregate.USERS);
+        return ConditionalGet.respond(request, etag, dashboardService::getDashboardStats);
     }
 
     @GetMapping("/stats/year/{year}")
@@ -34,9 +49,18 @@ public class DashboardController {
 
     @GetMapping("/calendar/{year}/{month}")
     public ResponseEntity<Map<String, Object>> getLeaveCalendar(
-            @PathVariable Integer year, @PathVariable Integer month) {
-        Map<String, Object> calendar = dashboardService.getLeaveCalendar(year, month);
-        return ResponseEntity.ok(calendar);
+            @PathVariable Integer year, @PathVariable Integer month,
+            @RequestParam(defaultValue = "daily") String format,
+            WebRequest request) {
+        boolean compact = "compact".equalsIgnoreCase(format);
+        if (!compact && !"daily".equalsIgnoreCase(format)) {
+            throw new RuntimeException("Unsupported calendar format: " + format + ". Use daily or compact");
+        }
+        String etag = aggregateVersions.etag("calendar/" + year + "/" + month + "/" + compact,
+                Aggregate.LEAVE_REQUESTS, Aggregate.USERS);
+        return ConditionalGet.respond(request, etag, () -> compact
+                ? dashboardService.getCompactLeaveCalendar(year, month)
+                : dashboardService.getLeaveCalendar(year, month));
     }
 
     @GetMapping("/reports/team-summary")
@@ -45,4 +69,25 @@ public class DashboardController {
         return ResponseEntity.ok(summary);
     }
 
+    @GetMapping("/capacity/consistency")
+    public ResponseEntity<Map<String, Object>> checkCapacityIndex(
+            @RequestParam(required = false) LocalDate from, @RequestParam(required = false) LocalDate to) {
+        LocalDate checkFrom = from != null ? from : LocalDate.now();
+        LocalDate checkTo = to != null ? to : checkFrom.plusYears(1);
+        List<LocalDate> inconsistentDays = leaveOccupancyIndex.findInconsistentDays(checkFrom, checkTo);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("from", checkFrom);
+        result.put("to", checkTo);
+        result.put("consistent", inconsistentDays.isEmpty());
+        result.put("inconsistentDays", inconsistentDays);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/capacity/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildCapacityIndex() {
+        leaveOccupancyIndex.rebuildFromDatabase();
+        return checkCapacityIndex(null, null);
+    }
+
 }
@@ -1,8 +1,11 @@
 package com.example.vacation_management.controller;
 
 
+import com.example.vacation_management.dto.CursorPageDto;
 import com.example.vacation_management.dto.LeaveBalanceDto;
 import com.example.vacation_management.entity.LeaveBalance;
+import com.example.vacation_management.service.AggregateVersions;
+import com.example.vacation_management.service.AggregateVersions.Aggregate;
 import com.example.vacation_management.service.LeaveBalanceService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -10,8 +13,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/leave-balances")
@@ -20,6 +25,9 @@ public class LeaveBalanceController {
     @Autowired
     private LeaveBalanceService leaveBalanceService;
 
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<LeaveBalance>> getAllBalancesForUser(@PathVariable Long userId) {
         List<LeaveBalance> balances = leaveBalanceService.getAllBalancesForUser(userId);
@@ -46,14 +54,14 @@ public class LeaveBalanceController {
     }
 
     @GetMapping("/my")
-    public ResponseEntity<List<LeaveBalance>> getMyAllBalances(HttpServletRequest request) {
+    public ResponseEntity<List<LeaveBalance>> getMyAllBalances(HttpServletRequest request, WebRequest webRequest) {
         Long currentUserId = (Long) request.getAttribute("userId");
         if (currentUserId == null) {
             throw new RuntimeException("User not authenticated");
         }
 
-        List<LeaveBalance> balances = leaveBalanceService.getAllBalancesForUser(currentUserId);
-        return ResponseEntity.ok(balances);
+        String etag = aggregateVersions.etag("balances/" + currentUserId, Aggregate.LEAVE_BALANCES, Aggregate.USERS);
+        return ConditionalGet.respond(webRequest, etag, () -> leaveBalanceService.getAllBalancesForUser(currentUserId));
     }
 
     @GetMapping("/user/{userId}/year/{year}")
@@ -65,11 +73,29 @@ public class LeaveBalanceController {
     }
 
     @GetMapping("/year/{year}")
+    public ResponseEntity<CursorPageDto<LeaveBalanceDto>> getBalancesForYearPage(
+            @PathVariable Integer year,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDto<LeaveBalanceDto> page = leaveBalanceService.getBalancesForYearPage(year, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/year/{year}", params = "unpaged=true")
     public ResponseEntity<List<LeaveBalanceDto>> getAllBalancesForYear(@PathVariable Integer year) {
         List<LeaveBalanceDto> balances = leaveBalanceService.getAllBalancesForYear(year);
         return ResponseEntity.ok(balances);
     }
 
+    @PostMapping("/year/{year}/rollover")
+    public ResponseEntity<Map<String, Object>> rolloverToYear(
+            @PathVariable Integer year,
+            @RequestParam(required = false) Integer defaultDays,
+            @RequestParam(required = false) Integer carryOverCap) {
+        Map<String, Object> result = leaveBalanceService.rolloverToYear(year, defaultDays, carryOverCap);
+        return ResponseEntity.ok(result);
+    }
+
     @PostMapping
     public ResponseEntity<LeaveBalance> createBalance(@Valid @RequestBody LeaveBalanceDto balanceDto) {
         try {
@@ -1,16 +1,30 @@
 package com.example.vacation_management.controller;
 
+import com.example.vacation_management.dto.BulkLeaveActionDto;
+import com.example.vacation_management.dto.BulkLeaveResultDto;
+import com.example.vacation_management.dto.CursorPageDto;
+import com.example.vacation_management.dto.ExportFormat;
 import com.example.vacation_management.dto.LeaveRequestDto;
 import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.service.AggregateVersions;
+import com.example.vacation_management.service.AggregateVersions.Aggregate;
+import com.example.vacation_management.service.LeaveEventHub;
 import com.example.vacation_management.service.LeaveRequestService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/leave-requests")
@@ -19,12 +33,38 @@ public class LeaveRequestController {
     @Autowired
     private LeaveRequestService leaveRequestService;
 
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
+    @Autowired
+    private LeaveEventHub leaveEventHub;
+
     @GetMapping
+    public ResponseEntity<CursorPageDto<LeaveRequestDto>> getRequestsPage(
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        CursorPageDto<LeaveRequestDto> page = leaveRequestService.getRequestsPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<LeaveRequestDto>> getAllRequests() {
         List<LeaveRequestDto> requests = leaveRequestService.getAllRequests();
         return ResponseEntity.ok(requests);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRequests(
+            @RequestParam Integer year, @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        StreamingResponseBody body = outputStream -> leaveRequestService.exportByYear(year, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"leave-requests-" + year + "." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<LeaveRequest> getRequestById(@PathVariable Long id) {
         return leaveRequestService.getRequestById(id)
@@ -48,9 +88,22 @@ public class LeaveRequestController {
     }
 
     @GetMapping("/pending")
-    public ResponseEntity<List<LeaveRequestDto>> getPendingRequests() {
-        List<LeaveRequestDto> requests = leaveRequestService.getPendingRequests();
-        return ResponseEntity.ok(requests);
+    public ResponseEntity<CursorPageDto<LeaveRequestDto>> getPendingRequestsPage(
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        String etag = aggregateVersions.etag("pending/" + cursor + "/" + size, Aggregate.LEAVE_REQUESTS, Aggregate.USERS);
+        return ConditionalGet.respond(request, etag, () -> leaveRequestService.getPendingRequestsPage(cursor, size));
+    }
+
+    @GetMapping(value = "/pending", params = "unpaged=true")
+    public ResponseEntity<List<LeaveRequestDto>> getPendingRequests(WebRequest request) {
+        String etag = aggregateVersions.etag("pending/unpaged", Aggregate.LEAVE_REQUESTS, Aggregate.USERS);
+        return ConditionalGet.respond(request, etag, leaveRequestService::getPendingRequests);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return leaveEventHub.subscribe(lastEventId);
     }
 
     @GetMapping("/active")
@@ -115,6 +168,20 @@ public class LeaveRequestController {
         return ResponseEntity.ok(rejectedRequest);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> processBulk(@Valid @RequestBody BulkLeaveActionDto bulkAction) {
+        List<BulkLeaveResultDto> results = leaveRequestService.processBulk(bulkAction.getIds(), bulkAction.getAction());
+        long succeeded = results.stream().filter(BulkLeaveResultDto::isSuccess).count();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("action", bulkAction.getAction().toLowerCase());
+        response.put("processed", results.size());
+        response.put("succeeded", succeeded);
+        response.put("failed", results.size() - succeeded);
+        response.put("results", results);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}/cancel")
     public ResponseEntity<LeaveRequest> cancelRequest(@PathVariable Long id, HttpServletRequest request) {
         Long currentUserId = (Long) request.getAttribute("userId");
@@ -1,16 +1,22 @@
 package com.example.vacation_management.controller;
 
+import com.example.vacation_management.dto.CursorPageDto;
 import com.example.vacation_management.dto.UserDto;
 import com.example.vacation_management.entity.Role;
 import com.example.vacation_management.entity.User;
+import com.example.vacation_management.service.UserImportService;
 import com.example.vacation_management.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -19,12 +25,40 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserImportService userImportService;
+
     @GetMapping
+    public ResponseEntity<CursorPageDto<User>> getUsersPage(
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+        CursorPageDto<User> page = userService.getUsersPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(params = "unpaged=true")
     public ResponseEntity<List<User>> getAllUsers() {
         List<User> users = userService.getAllUsers();
         return ResponseEntity.ok(users);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> importUsers(@RequestBody List<UserDto> users) {
+        Map<String, Object> job = userImportService.startImport(users);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<Map<String, Object>> importUsersCsv(@RequestBody String csv) throws IOException {
+        Map<String, Object> job = userImportService.startCsvImport(new StringReader(csv));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<Map<String, Object>> getImportStatus(@PathVariable String jobId) {
+        Map<String, Object> status = userImportService.getImportStatus(jobId);
+        return ResponseEntity.ok(status);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
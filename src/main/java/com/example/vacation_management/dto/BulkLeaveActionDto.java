@@ -0,0 +1,43 @@
+package com.example.vacation_management.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkLeaveActionDto {
+
+    public static final int MAX_IDS = 1000;
+
+    @NotEmpty(message = "At least one request id is required")
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " requests can be processed at once")
+    private List<Long> ids;
+
+    @NotBlank(message = "Action is required")
+    private String action;
+
+    public BulkLeaveActionDto() {}
+
+    public BulkLeaveActionDto(List<Long> ids, String action) {
+        this.ids = ids;
+        this.action = action;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.example.vacation_management.dto;
+
+import com.example.vacation_management.entity.LeaveStatus;
+
+public class BulkLeaveResultDto {
+
+    private Long id;
+    private boolean success;
+    private LeaveStatus status;
+    private String message;
+
+    public BulkLeaveResultDto() {}
+
+    public BulkLeaveResultDto(Long id, boolean success, LeaveStatus status, String message) {
+        this.id = id;
+        this.success = success;
+        this.status = status;
+        this.message = message;
+    }
+
+    public static BulkLeaveResultDto succeeded(Long id, LeaveStatus status) {
+        return new BulkLeaveResultDto(id, true, status, null);
+    }
+
+    public static BulkLeaveResultDto failed(Long id, LeaveStatus status, String message) {
+        return new BulkLeaveResultDto(id, false, status, message);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public LeaveStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(LeaveStatus status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.example.vacation_management.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CursorPageDto<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int size;
+
+    public CursorPageDto() {}
+
+    public CursorPageDto(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.size = items.size();
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code pageSize + 1}; the extra row only
+     * signals that another page exists.
+     */
+    public static <E, T> CursorPageDto<T> of(List<E> rows, int pageSize, Function<E, Long> idExtractor,
+                                             Function<E, T> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(idExtractor.apply(pageRows.get(pageRows.size() - 1))) : null;
+        return new CursorPageDto<>(pageRows.stream().map(mapper).collect(Collectors.toList()), nextCursor, hasMore);
+    }
+
+    public static int clampSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Unknown cursor format");
+            }
+            long id = Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            if (id < 0) {
+                throw new IllegalArgumentException("Negative cursor id");
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+}
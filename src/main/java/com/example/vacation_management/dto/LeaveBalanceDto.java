@@ -36,6 +36,21 @@ public class LeaveBalanceDto {
         this.remainingDays = totalDays;
     }
 
+    /**
+     * Projection constructor used by the {@code SELECT new} queries in {@code LeaveBalanceRepository}.
+     */
+    public LeaveBalanceDto(Long id, Long userId, Integer totalDays, Integer usedDays, Integer remainingDays,
+                           Integer year, String userEmail, String userFirstName, String userLastName) {
+        this.id = id;
+        this.userId = userId;
+        this.totalDays = totalDays;
+        this.usedDays = usedDays;
+        this.remainingDays = remainingDays;
+        this.year = year;
+        this.userEmail = userEmail;
+        this.userFullName = userFirstName + " " + userLastName;
+    }
+
     public Long getId() {
         return id;
     }
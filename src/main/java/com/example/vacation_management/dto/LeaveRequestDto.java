@@ -44,6 +44,25 @@ public class LeaveRequestDto {
         this.status = LeaveStatus.PENDING;
     }
 
+    /**
+     * Projection constructor used by the {@code SELECT new} queries in {@code LeaveRequestRepository}.
+     */
+    public LeaveRequestDto(Long id, Long userId, LocalDate startDate, LocalDate endDate, Integer workingDays,
+                           LeaveType leaveType, LeaveStatus status, String comment, LocalDateTime createdAt,
+                           String userEmail, String userFirstName, String userLastName) {
+        this.id = id;
+        this.userId = userId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.workingDays = workingDays;
+        this.leaveType = leaveType;
+        this.status = status;
+        this.comment = comment;
+        this.createdAt = createdAt;
+        this.userEmail = userEmail;
+        this.userFullName = userFirstName + " " + userLastName;
+    }
+
     public Long getId() {
         return id;
     }
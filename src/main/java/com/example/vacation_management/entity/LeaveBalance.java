@@ -3,18 +3,23 @@ package com.example.vacation_management.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 @Entity
 @Table(name = "leave_balances",
         uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "year"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class LeaveBalance {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leave_balances_seq")
+    @SequenceGenerator(name = "leave_balances_seq", sequenceName = "leave_balances_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
+    @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
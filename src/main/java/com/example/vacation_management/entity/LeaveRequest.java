@@ -9,7 +9,12 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "leave_requests")
+@Table(name = "leave_requests", indexes = {
+        @Index(name = "idx_leave_requests_status_dates", columnList = "status, start_date, end_date"),
+        @Index(name = "idx_leave_requests_user_start", columnList = "user_id, start_date"),
+        @Index(name = "idx_leave_requests_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_leave_requests_dates", columnList = "start_date, end_date")
+})
 public class LeaveRequest {
 
     @Id
@@ -63,21 +68,23 @@ public class LeaveRequest {
 
     public void calculateWorkingDays() {
         if (startDate != null && endDate != null) {
-            long totalDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
-            int workingDaysCount = 0;
-
-            LocalDate currentDate = startDate;
-            while (!currentDate.isAfter(endDate)) {
-                if (currentDate.getDayOfWeek().getValue() < 6) {
-                    workingDaysCount++;
-                }
-                currentDate = currentDate.plusDays(1);
-            }
-
-            this.workingDays = workingDaysCount;
+            this.workingDays = countWorkingDays(startDate, endDate);
         }
     }
 
+    public static int countWorkingDays(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return 0;
+        }
+        return (int) (weekdaysBefore(endDate.toEpochDay() + 1) - weekdaysBefore(startDate.toEpochDay()));
+    }
+
+    // Weekdays between Monday 1969-12-29 (epoch day -3) and the given epoch day, exclusive.
+    private static long weekdaysBefore(long epochDay) {
+        long daysSinceMonday = epochDay + 3;
+        return Math.floorDiv(daysSinceMonday, 7) * 5 + Math.min(Math.floorMod(daysSinceMonday, 7), 5);
+    }
+
     public boolean canBeCancelled() {
         if (this.status != LeaveStatus.APPROVED) {
             return false;
@@ -0,0 +1,7 @@
+package com.example.vacation_management.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSED,
+    FAILED
+}
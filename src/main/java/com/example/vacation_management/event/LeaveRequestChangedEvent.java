@@ -0,0 +1,83 @@
+package com.example.vacation_management.event;
+
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.LeaveStatus;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LeaveRequestChangedEvent {
+
+    private final Long requestId;
+    private final Long userId;
+    private final LeaveStatus status;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public LeaveRequestChangedEvent(Long requestId, Long userId, LeaveStatus status,
+                                    LocalDate startDate, LocalDate endDate) {
+        this.requestId = requestId;
+        this.userId = userId;
+        this.status = status;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public static LeaveRequestChangedEvent of(LeaveRequest request) {
+        return new LeaveRequestChangedEvent(request.getId(), request.getUser().getId(), request.getStatus(),
+                request.getStartDate(), request.getEndDate());
+    }
+
+    public List<YearMonth> getAffectedMonths() {
+        List<YearMonth> months = new ArrayList<>();
+        YearMonth last = YearMonth.from(endDate);
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    /**
+     * What happened to the request, named from its new status: created, approved, rejected or cancelled.
+     */
+    public String getAction() {
+        return switch (status) {
+            case PENDING -> "created";
+            case APPROVED -> "approved";
+            case REJECTED -> "rejected";
+            case CANCELLED -> "cancelled";
+        };
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LeaveStatus getStatus() {
+        return status;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaveRequestChangedEvent{" +
+                "requestId=" + requestId +
+                ", status=" + status +
+                ", startDate=" + startDate +
+                ", endDate=" + endDate +
+                '}';
+    }
+}
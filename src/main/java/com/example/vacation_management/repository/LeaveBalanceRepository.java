@@ -1,20 +1,32 @@
 package com.example.vacation_management.repository;
 
+import com.example.vacation_management.dto.LeaveBalanceDto;
 import com.example.vacation_management.entity.LeaveBalance;
 import com.example.vacation_management.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long> {
 
+    String DTO_SELECT = "SELECT new com.example.vacation_management.dto.LeaveBalanceDto(" +
+            "lb.id, u.id, lb.totalDays, lb.usedDays, lb.remainingDays, lb.year, u.email, u.firstName, u.lastName) " +
+            "FROM LeaveBalance lb JOIN lb.user u ";
+
     Optional<LeaveBalance> findByUserAndYear(User user, Integer year);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT lb FROM LeaveBalance lb WHERE lb.user.id = :userId AND lb.year = :year")
     Optional<LeaveBalance> findByUserIdAndYear(@Param("userId") Long userId, @Param("year") Integer year);
 
@@ -24,6 +36,10 @@ public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long
 
     List<LeaveBalance> findByYear(Integer year);
 
+    @Query("SELECT lb FROM LeaveBalance lb WHERE lb.user.id IN :userIds AND lb.year IN :years")
+    List<LeaveBalance> findByUserIdInAndYearIn(@Param("userIds") Collection<Long> userIds,
+                                               @Param("years") Collection<Integer> years);
+
     boolean existsByUserAndYear(User user, Integer year);
 
     @Query("SELECT COUNT(lb) > 0 FROM LeaveBalance lb WHERE lb.user.id = :userId AND lb.year = :year")
@@ -32,5 +48,25 @@ public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long
     @Query("SELECT lb FROM LeaveBalance lb WHERE lb.year = :year AND lb.remainingDays <= :threshold")
     List<LeaveBalance> findUsersWithLowVacationDays(@Param("year") Integer year, @Param("threshold") Integer threshold);
 
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LeaveBalance lb SET lb.usedDays = lb.usedDays + :days, lb.remainingDays = lb.remainingDays - :days " +
+            "WHERE lb.user.id = :userId AND lb.year = :year AND lb.remainingDays >= :days")
+    int deductDays(@Param("userId") Long userId, @Param("year") Integer year, @Param("days") Integer days);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LeaveBalance lb SET " +
+            "lb.usedDays = CASE WHEN lb.usedDays > :days THEN lb.usedDays - :days ELSE 0 END, " +
+            "lb.remainingDays = lb.totalDays - CASE WHEN lb.usedDays > :days THEN lb.usedDays - :days ELSE 0 END " +
+            "WHERE lb.user.id = :userId AND lb.year = :year")
+    int returnDays(@Param("userId") Long userId, @Param("year") Integer year, @Param("days") Integer days);
+
+    @Query("SELECT lb.user.id, lb.totalDays, lb.usedDays, lb.remainingDays FROM LeaveBalance lb WHERE lb.year = :year")
+    List<Object[]> findBalanceSummariesByYear(@Param("year") Integer year);
+
+    @Query(DTO_SELECT + "WHERE lb.year = :year")
+    List<LeaveBalanceDto> findDtosByYear(@Param("year") Integer year);
+
+    @Query(DTO_SELECT + "WHERE lb.year = :year AND lb.id > :id ORDER BY lb.id")
+    List<LeaveBalanceDto> findDtosByYearAndIdGreaterThan(@Param("year") Integer year, @Param("id") Long id, Limit limit);
 
 }
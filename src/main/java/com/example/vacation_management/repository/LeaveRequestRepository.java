@@ -1,20 +1,35 @@
 package com.example.vacation_management.repository;
 
+import com.example.vacation_management.dto.LeaveRequestDto;
 import com.example.vacation_management.entity.LeaveRequest;
 import com.example.vacation_management.entity.LeaveStatus;
 import com.example.vacation_management.entity.LeaveType;
 import com.example.vacation_management.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long> {
 
+    /**
+     * Selects exactly the columns {@link LeaveRequestDto} exposes, joined with the owning user's
+     * email and names, so read paths never hydrate entities or load password hashes.
+     */
+    String DTO_SELECT = "SELECT new com.example.vacation_management.dto.LeaveRequestDto(" +
+            "lr.id, u.id, lr.startDate, lr.endDate, lr.workingDays, lr.leaveType, lr.status, lr.comment, lr.createdAt, " +
+            "u.email, u.firstName, u.lastName) FROM LeaveRequest lr JOIN lr.user u ";
+
     List<LeaveRequest> findByUser(User user);
 
     List<LeaveRequest> findByUserId(Long userId);
@@ -25,34 +40,101 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long
 
     List<LeaveRequest> findByStatus(LeaveStatus status);
 
+    @Query("SELECT lr FROM LeaveRequest lr JOIN FETCH lr.user WHERE lr.id IN :ids ORDER BY lr.startDate, lr.id")
+    List<LeaveRequest> findAllWithUserByIdInOrderByStartDate(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate <= :endDate AND lr.endDate >= :startDate")
     List<LeaveRequest> findOverlappingRequests(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     @Query("SELECT lr FROM LeaveRequest lr WHERE lr.status = 'APPROVED' AND lr.startDate <= :endDate AND lr.endDate >= :startDate")
     List<LeaveRequest> findApprovedOverlappingRequests(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT lr FROM LeaveRequest lr WHERE YEAR(lr.startDate) = :year OR YEAR(lr.endDate) = :year")
-    List<LeaveRequest> findByYear(@Param("year") Integer year);
+    @Query("SELECT lr.id, lr.startDate, lr.endDate FROM LeaveRequest lr WHERE lr.status = 'APPROVED' AND lr.endDate >= :from")
+    List<Object[]> findApprovedRangesEndingOnOrAfter(@Param("from") LocalDate from);
 
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.id = :userId AND (YEAR(lr.startDate) = :year OR YEAR(lr.endDate) = :year)")
-    List<LeaveRequest> findByUserIdAndYear(@Param("userId") Long userId, @Param("year") Integer year);
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.startDate <= :to AND lr.endDate >= :from")
+    List<LeaveRequest> findOverlappingPeriod(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.status = 'APPROVED' AND (YEAR(lr.startDate) = :year OR YEAR(lr.endDate) = :year)")
-    List<LeaveRequest> findApprovedByUserIdAndYear(@Param("userId") Long userId, @Param("year") Integer year);
+    default List<LeaveRequest> findByYear(Integer year) {
+        return findOverlappingPeriod(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
 
-    List<LeaveRequest> findByLeaveType(LeaveType leaveType);
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.startDate <= :to AND lr.endDate >= :from")
+    List<LeaveRequest> findByUserIdOverlappingPeriod(@Param("userId") Long userId,
+                                                     @Param("from") LocalDate from, @Param("to") LocalDate to);
 
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.status = 'APPROVED' AND :today BETWEEN lr.startDate AND lr.endDate")
-    List<LeaveRequest> findActiveLeaves(@Param("today") LocalDate today);
+    default List<LeaveRequest> findByUserIdAndYear(Long userId, Integer year) {
+        return findByUserIdOverlappingPeriod(userId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
 
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.status = 'APPROVED' AND lr.startDate BETWEEN :today AND :futureDate")
-    List<LeaveRequest> findUpcomingLeaves(@Param("today") LocalDate today, @Param("futureDate") LocalDate futureDate);
+    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.status = 'APPROVED' AND lr.startDate <= :to AND lr.endDate >= :from")
+    List<LeaveRequest> findApprovedByUserIdOverlappingPeriod(@Param("userId") Long userId,
+                                                             @Param("from") LocalDate from, @Param("to") LocalDate to);
 
-    @Query("SELECT lr FROM LeaveRequest lr WHERE lr.status = 'PENDING' ORDER BY lr.createdAt ASC")
-    List<LeaveRequest> findPendingRequests();
+    default List<LeaveRequest> findApprovedByUserIdAndYear(Long userId, Integer year) {
+        return findApprovedByUserIdOverlappingPeriod(userId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    List<LeaveRequest> findByLeaveType(LeaveType leaveType);
 
     @Query("SELECT COUNT(lr) > 0 FROM LeaveRequest lr WHERE lr.user.id = :userId AND lr.status = 'APPROVED' AND lr.startDate <= :endDate AND lr.endDate >= :startDate")
     boolean hasApprovedLeaveInPeriod(@Param("userId") Long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
+    @Query("SELECT lr.status, COUNT(lr) FROM LeaveRequest lr GROUP BY lr.status")
+    List<Object[]> countGroupedByStatus();
+
+    @Query("SELECT COUNT(lr) FROM LeaveRequest lr WHERE lr.status = 'APPROVED' AND :today BETWEEN lr.startDate AND lr.endDate")
+    long countActiveLeaves(@Param("today") LocalDate today);
+
+    @Query("SELECT COUNT(lr) FROM LeaveRequest lr WHERE lr.status = 'APPROVED' AND lr.startDate BETWEEN :today AND :futureDate")
+    long countUpcomingLeaves(@Param("today") LocalDate today, @Param("futureDate") LocalDate futureDate);
+
+    @Query("SELECT lr.user.id, COUNT(lr) FROM LeaveRequest lr WHERE lr.startDate <= :to AND lr.endDate >= :from GROUP BY lr.user.id")
+    List<Object[]> countRequestsPerUserInPeriod(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    default List<Object[]> countRequestsPerUserForYear(Integer year) {
+        return countRequestsPerUserInPeriod(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    @Query("SELECT DISTINCT lr.user.id FROM LeaveRequest lr WHERE lr.status = 'APPROVED' AND :today BETWEEN lr.startDate AND lr.endDate")
+    List<Long> findUserIdsOnLeave(@Param("today") LocalDate today);
+
+    @Query(DTO_SELECT + "ORDER BY lr.id")
+    List<LeaveRequestDto> findAllDtos();
+
+    @Query(DTO_SELECT + "WHERE lr.id > :id ORDER BY lr.id")
+    List<LeaveRequestDto> findDtosByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    @Query(DTO_SELECT + "WHERE lr.status = :status AND lr.id > :id ORDER BY lr.id")
+    List<LeaveRequestDto> findDtosByStatusAndIdGreaterThan(@Param("status") LeaveStatus status, @Param("id") Long id,
+                                                           Limit limit);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId")
+    List<LeaveRequestDto> findDtosByUserId(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND lr.startDate <= :to AND lr.endDate >= :from")
+    List<LeaveRequestDto> findDtosByUserIdOverlappingPeriod(@Param("userId") Long userId,
+                                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    default List<LeaveRequestDto> findDtosByUserIdAndYear(Long userId, Integer year) {
+        return findDtosByUserIdOverlappingPeriod(userId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    @Query(DTO_SELECT + "WHERE lr.status = 'PENDING' ORDER BY lr.createdAt ASC")
+    List<LeaveRequestDto> findPendingDtos();
+
+    @Query(DTO_SELECT + "WHERE lr.status = 'APPROVED' AND :today BETWEEN lr.startDate AND lr.endDate")
+    List<LeaveRequestDto> findActiveLeaveDtos(@Param("today") LocalDate today);
+
+    @Query(DTO_SELECT + "WHERE lr.status = 'APPROVED' AND lr.startDate BETWEEN :today AND :futureDate")
+    List<LeaveRequestDto> findUpcomingLeaveDtos(@Param("today") LocalDate today, @Param("futureDate") LocalDate futureDate);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "WHERE lr.startDate <= :to AND lr.endDate >= :from ORDER BY lr.id")
+    Stream<LeaveRequestDto> streamDtosOverlappingPeriod(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    default Stream<LeaveRequestDto> streamDtosByYear(Integer year) {
+        return streamDtosOverlappingPeriod(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
 
 }
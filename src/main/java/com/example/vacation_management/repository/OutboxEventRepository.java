@@ -0,0 +1,45 @@
+package com.example.vacation_management.repository;
+
+import com.example.vacation_management.entity.OutboxEvent;
+import com.example.vacation_management.entity.OutboxStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'PENDING' AND e.id > :id ORDER BY e.id")
+    List<OutboxEvent> findPendingAfter(@Param("id") Long id, Limit limit);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = 'PENDING'")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PROCESSED', e.processedAt = :processedAt, " +
+            "e.attempts = e.attempts + 1, e.lastError = NULL WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") List<Long> ids, @Param("processedAt") LocalDateTime processedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.lastError = :lastError WHERE e.id = :id")
+    int markFailedAttempt(@Param("id") Long id, @Param("status") OutboxStatus status, @Param("attempts") Integer attempts,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'PROCESSED' AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+
+}
@@ -0,0 +1,77 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.event.LeaveRequestChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version counters for the data behind the polled read endpoints. A counter only moves
+ * after the write that changed its aggregate has committed, so a version seen by a reader never
+ * names data that could still roll back. ETags built from them carry a per-process epoch, which
+ * keeps tags issued before a restart from matching the reset counters.
+ */
+@Component
+public class AggregateVersions {
+
+    public enum Aggregate {
+        LEAVE_REQUESTS,
+        LEAVE_BALANCES,
+        USERS
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Aggregate, AtomicLong> versions = new EnumMap<>(Aggregate.class);
+
+    public AggregateVersions() {
+        for (Aggregate aggregate : Aggregate.values()) {
+            versions.put(aggregate, new AtomicLong());
+        }
+    }
+
+    public long current(Aggregate aggregate) {
+        return versions.get(aggregate).get();
+    }
+
+    public void bumpAfterCommit(Aggregate aggregate) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.get(aggregate).incrementAndGet();
+                }
+            });
+        } else {
+            versions.get(aggregate).incrementAndGet();
+        }
+    }
+
+    // Last after-commit listener, so caches feeding these ETags have already dropped the old data.
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLeaveRequestChanged(LeaveRequestChangedEvent event) {
+        versions.get(Aggregate.LEAVE_REQUESTS).incrementAndGet();
+    }
+
+    /**
+     * Strong ETag for one representation: {@code variant} distinguishes resources and query
+     * parameters that share the same aggregates.
+     */
+    public String etag(String variant, Aggregate... aggregates) {
+        StringBuilder tag = new StringBuilder("\"").append(epoch).append('-')
+                .append(Integer.toHexString(variant.hashCode()));
+        for (Aggregate aggregate : aggregates) {
+            tag.append('-').append(current(aggregate));
+        }
+        return tag.append('"').toString();
+    }
+
+}
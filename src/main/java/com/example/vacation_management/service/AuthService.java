@@ -7,14 +7,20 @@ import com.example.vacation_management.dto.UserDto;
 import com.example.vacation_management.entity.Role;
 import com.example.vacation_management.entity.User;
 import com.example.vacation_management.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -34,6 +40,20 @@ public class AuthService {
     @Autowired
     private LeaveBalanceService leaveBalanceService;
 
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
+    @Value("${leave.balance.default-days:26}")
+    private int defaultDays;
+
+    // No surrounding transaction, so no connection is held while the password check waits in the verifier queue.
+    @Transactional(Transactional.TxType.SUPPORTS)
     public LoginResponseDto login(LoginRequestDto loginRequest) {
         logger.info("Attempting login for email: {}", loginRequest.getEmail());
 
@@ -43,7 +63,7 @@ public class AuthService {
                     return new RuntimeException("Invalid email or password");
                 });
 
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        if (!passwordVerifier.matches(loginRequest.getPassword(), user.getPassword())) {
             logger.error("Invalid password for user: {}", loginRequest.getEmail());
             throw new RuntimeException("Invalid email or password");
         }
@@ -78,11 +98,12 @@ public class AuthService {
         user.setRole(userDto.getRole() != null ? userDto.getRole() : Role.EMPLOYEE);
 
         User savedUser = userRepository.save(user);
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.USERS);
 
         if (savedUser.getRole() == Role.EMPLOYEE) {
             try {
                 int currentYear = LocalDate.now().getYear();
-                leaveBalanceService.createDefaultBalanceForUser(savedUser, currentYear, 26); // 26 dni urlopu domyślnie
+                leaveBalanceService.createDefaultBalanceForUser(savedUser, currentYear, defaultDays);
                 logger.info("Created default leave balance for new user: {}", savedUser.getEmail());
             } catch (Exception e) {
                 logger.warn("Failed to create leave balance for new user: {} - {}", savedUser.getEmail(), e.getMessage());
@@ -93,19 +114,24 @@ public class AuthService {
         return savedUser;
     }
 
+    // Like login, the old password is checked outside any transaction; only the final update opens one.
+    @Transactional(Transactional.TxType.SUPPORTS)
     public void changePassword(Long userId, String oldPassword, String newPassword) {
         logger.info("Attempting to change password for user ID: {}", userId);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordVerifier.matches(oldPassword, user.getPassword())) {
             logger.error("Invalid old password for user ID: {}", userId);
             throw new RuntimeException("Invalid old password");
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        String newHash = passwordEncoder.encode(newPassword);
+        if (userRepository.replacePassword(userId, user.getPassword(), newHash) == 0) {
+            logger.error("Password for user ID {} changed while verifying the old one", userId);
+            throw new RuntimeException("Password was changed concurrently, please retry");
+        }
 
         logger.info("Password changed successfully for user ID: {}", userId);
     }
@@ -121,4 +147,36 @@ public class AuthService {
         }
     }
 
+    /**
+     * Builds the current user's profile from claims the authentication filter has already
+     * verified, without touching the database.
+     */
+    public Map<String, Object> getProfileFromClaims(Claims claims) {
+        Map<String, Object> profile = new HashMap<>();
+        profile.put("userId", Long.valueOf(claims.get("userId").toString()));
+        profile.put("email", claims.getSubject());
+        profile.put("firstName", claims.get("firstName"));
+        profile.put("lastName", claims.get("lastName"));
+        profile.put("role", Role.valueOf(claims.get("role").toString()));
+        Object createdAt = claims.get("createdAt");
+        profile.put("createdAt", createdAt != null ? LocalDateTime.parse(createdAt.toString()) : null);
+        return profile;
+    }
+
+    public Map<String, Object> getFreshProfile(Long userId) {
+        return userProfileCache.get(userId, id -> toProfile(userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found"))));
+    }
+
+    private static Map<String, Object> toProfile(User user) {
+        Map<String, Object> profile = new HashMap<>();
+        profile.put("userId", user.getId());
+        profile.put("email", user.getEmail());
+        profile.put("firstName", user.getFirstName());
+        profile.put("lastName", user.getLastName());
+        profile.put("role", user.getRole());
+        profile.put("createdAt", user.getCreatedAt());
+        return Collections.unmodifiableMap(profile);
+    }
+
 }
@@ -10,18 +10,28 @@ import com.example.vacation_management.repository.LeaveRequestRepository;
 import com.example.vacation_management.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class DashboardService {
 
+    private static final String REPORT_TIMER = "dashboard.report";
+
     @Autowired
     private UserRepository userRepository;
 
@@ -31,19 +41,39 @@ public class DashboardService {
     @Autowired
     private LeaveBalanceRepository leaveBalanceRepository;
 
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @Autowired
+    private LeaveCalendarCache leaveCalendarCache;
+
+    // Served under an ETag, so it reads the primary (see DataSourceRoutingConfig).
+    @Transactional
     public Map<String, Object> getDashboardStats() {
+        return operationMetrics.time(REPORT_TIMER, this::buildDashboardStats, "report", "stats");
+    }
+
+    private Map<String, Object> buildDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
 
-        long totalUsers = userRepository.count();
-        long totalEmployees = userRepository.countByRole(Role.EMPLOYEE);
-        long totalAdmins = userRepository.countByRole(Role.ADMIN);
+        Map<Role, Long> usersByRole = new EnumMap<>(Role.class);
+        for (Object[] row : userRepository.countGroupedByRole()) {
+            usersByRole.put((Role) row[0], (Long) row[1]);
+        }
+        long totalEmployees = usersByRole.getOrDefault(Role.EMPLOYEE, 0L);
+        long totalAdmins = usersByRole.getOrDefault(Role.ADMIN, 0L);
+        long totalUsers = usersByRole.values().stream().mapToLong(Long::longValue).sum();
 
-        long pendingRequests = leaveRequestRepository.findByStatus(LeaveStatus.PENDING).size();
-        long approvedRequests = leaveRequestRepository.findByStatus(LeaveStatus.APPROVED).size();
-        long activeLeaves = leaveRequestRepository.findActiveLeaves(LocalDate.now()).size();
+        Map<LeaveStatus, Long> requestsByStatus = new EnumMap<>(LeaveStatus.class);
+        for (Object[] row : leaveRequestRepository.countGroupedByStatus()) {
+            requestsByStatus.put((LeaveStatus) row[0], (Long) row[1]);
+        }
+        long pendingRequests = requestsByStatus.getOrDefault(LeaveStatus.PENDING, 0L);
+        long approvedRequests = requestsByStatus.getOrDefault(LeaveStatus.APPROVED, 0L);
 
-        LocalDate nextWeek = LocalDate.now().plusDays(7);
-        long upcomingLeaves = leaveRequestRepository.findUpcomingLeaves(LocalDate.now(), nextWeek).size();
+        LocalDate today = LocalDate.now();
+        long activeLeaves = leaveRequestRepository.countActiveLeaves(today);
+        long upcomingLeaves = leaveRequestRepository.countUpcomingLeaves(today, today.plusDays(7));
 
         stats.put("totalUsers", totalUsers);
         stats.put("totalEmployees", totalEmployees);
@@ -58,6 +88,10 @@ public class DashboardService {
     }
 
     public Map<String, Object> getYearlyStats(Integer year) {
+        return operationMetrics.time(REPORT_TIMER, () -> buildYearlyStats(year), "report", "yearly_stats");
+    }
+
+    private Map<String, Object> buildYearlyStats(Integer year) {
         Map<String, Object> stats = new HashMap<>();
 
         List<LeaveRequest> yearRequests = leaveRequestRepository.findByYear(year);
@@ -85,10 +119,78 @@ public class DashboardService {
         return stats;
     }
 
+    // Calendars are cached until the next commit and served under an ETag, so they read the primary too.
+    @Transactional
     public Map<String, Object> getLeaveCalendar(Integer year, Integer month) {
-        Map<String, Object> calendar = new HashMap<>();
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return operationMetrics.time(REPORT_TIMER, () -> leaveCalendarCache.get(yearMonth, this::buildLeaveCalendar),
+                "report", "calendar");
+    }
 
+    /**
+     * Same data as {@link #getLeaveCalendar} without the per-day expansion: every user is listed once,
+     * every leave once as a {@code [startDay, endDay]} interval clipped to the month, plus the number
+     * of people on leave for each day of the month.
+     */
+    @Transactional
+    public Map<String, Object> getCompactLeaveCalendar(Integer year, Integer month) {
         YearMonth yearMonth = YearMonth.of(year, month);
+        return operationMetrics.time(REPORT_TIMER,
+                () -> leaveCalendarCache.get(yearMonth, "compact", () -> buildCompactLeaveCalendar(yearMonth)),
+                "report", "calendar_compact");
+    }
+
+    private Map<String, Object> buildCompactLeaveCalendar(YearMonth yearMonth) {
+        LocalDate startDate = yearMonth.atDay(1);
+        LocalDate endDate = yearMonth.atEndOfMonth();
+        int daysInMonth = yearMonth.lengthOfMonth();
+
+        List<LeaveRequest> monthLeaves = leaveRequestRepository.findApprovedOverlappingRequests(startDate, endDate);
+
+        Map<Long, String> users = new LinkedHashMap<>();
+        List<Map<String, Object>> leaves = new ArrayList<>(monthLeaves.size());
+        int[] dailyCounts = new int[daysInMonth + 1];
+
+        for (LeaveRequest leave : monthLeaves) {
+            LocalDate from = leave.getStartDate().isAfter(startDate) ? leave.getStartDate() : startDate;
+            LocalDate to = leave.getEndDate().isBefore(endDate) ? leave.getEndDate() : endDate;
+            if (from.isAfter(to)) {
+                continue;
+            }
+            int firstDay = from.getDayOfMonth();
+            int lastDay = to.getDayOfMonth();
+
+            User user = leave.getUser();
+            users.computeIfAbsent(user.getId(), id -> user.getFirstName() + " " + user.getLastName());
+            dailyCounts[firstDay - 1]++;
+            dailyCounts[lastDay]--;
+
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("userId", user.getId());
+            entry.put("leaveType", leave.getLeaveType());
+            entry.put("days", new int[]{firstDay, lastDay});
+            leaves.add(entry);
+        }
+
+        for (int day = 1; day < daysInMonth; day++) {
+            dailyCounts[day] += dailyCounts[day - 1];
+        }
+
+        Map<String, Object> calendar = new HashMap<>();
+        calendar.put("year", yearMonth.getYear());
+        calendar.put("month", yearMonth.getMonthValue());
+        calendar.put("monthName", yearMonth.getMonth().name());
+        calendar.put("daysInMonth", daysInMonth);
+        calendar.put("users", Collections.unmodifiableMap(users));
+        calendar.put("leaves", Collections.unmodifiableList(leaves));
+        calendar.put("dailyCounts", Arrays.copyOf(dailyCounts, daysInMonth));
+
+        return Collections.unmodifiableMap(calendar);
+    }
+
+    private Map<String, Object> buildLeaveCalendar(YearMonth yearMonth) {
+        Map<String, Object> calendar = new HashMap<>();
+
         LocalDate startDate = yearMonth.atDay(1);
         LocalDate endDate = yearMonth.atEndOfMonth();
 
@@ -111,52 +213,52 @@ public class DashboardService {
             }
         }
 
-        calendar.put("year", year);
-        calendar.put("month", month);
+        calendar.put("year", yearMonth.getYear());
+        calendar.put("month", yearMonth.getMonthValue());
         calendar.put("monthName", yearMonth.getMonth().name());
         calendar.put("daysInMonth", yearMonth.lengthOfMonth());
-        calendar.put("dailyLeaves", dailyLeaves);
+        calendar.put("dailyLeaves", Collections.unmodifiableMap(dailyLeaves));
 
-        return calendar;
+        return Collections.unmodifiableMap(calendar);
     }
 
     public Map<String, Object> getTeamSummary() {
+        return operationMetrics.time(REPORT_TIMER, this::buildTeamSummary, "report", "team_summary");
+    }
+
+    private Map<String, Object> buildTeamSummary() {
         Map<String, Object> summary = new HashMap<>();
 
         List<User> employees = userRepository.findByRole(Role.EMPLOYEE);
-        List<Map<String, Object>> teamMembers = new ArrayList<>();
+        List<Map<String, Object>> teamMembers = new ArrayList<>(employees.size());
 
         int currentYear = LocalDate.now().getYear();
 
+        Map<Long, Object[]> balancesByUser = new HashMap<>();
+        for (Object[] row : leaveBalanceRepository.findBalanceSummariesByYear(currentYear)) {
+            balancesByUser.put((Long) row[0], row);
+        }
+
+        Map<Long, Long> requestCountsByUser = new HashMap<>();
+        for (Object[] row : leaveRequestRepository.countRequestsPerUserForYear(currentYear)) {
+            requestCountsByUser.put((Long) row[0], (Long) row[1]);
+        }
+
+        Set<Long> usersOnLeave = new HashSet<>(leaveRequestRepository.findUserIdsOnLeave(LocalDate.now()));
+
         for (User employee : employees) {
             Map<String, Object> memberData = new HashMap<>();
             memberData.put("userId", employee.getId());
             memberData.put("name", employee.getFirstName() + " " + employee.getLastName());
             memberData.put("email", employee.getEmail());
 
-            List<LeaveRequest> userRequests = leaveRequestRepository.findApprovedByUserIdAndYear(employee.getId(), currentYear);
-            int daysUsed = userRequests.stream().mapToInt(LeaveRequest::getWorkingDays).sum();
-
-            leaveBalanceRepository.findByUserIdAndYear(employee.getId(), currentYear)
-                    .ifPresentOrElse(
-                            balance -> {
-                                memberData.put("totalDays", balance.getTotalDays());
-                                memberData.put("usedDays", balance.getUsedDays());
-                                memberData.put("remainingDays", balance.getRemainingDays());
-                            },
-                            () -> {
-                                memberData.put("totalDays", 0);
-                                memberData.put("usedDays", 0);
-                                memberData.put("remainingDays", 0);
-                            }
-                    );
-
-            boolean currentlyOnLeave = leaveRequestRepository.findActiveLeaves(LocalDate.now())
-                    .stream().anyMatch(req -> req.getUser().getId().equals(employee.getId()));
-            memberData.put("currentlyOnLeave", currentlyOnLeave);
-
-            long totalRequests = leaveRequestRepository.findByUserIdAndYear(employee.getId(), currentYear).size();
-            memberData.put("totalRequests", totalRequests);
+            Object[] balance = balancesByUser.get(employee.getId());
+            memberData.put("totalDays", balance != null ? balance[1] : 0);
+            memberData.put("usedDays", balance != null ? balance[2] : 0);
+            memberData.put("remainingDays", balance != null ? balance[3] : 0);
+
+            memberData.put("currentlyOnLeave", usersOnLeave.contains(employee.getId()));
+            memberData.put("totalRequests", requestCountsByUser.getOrDefault(employee.getId(), 0L));
 
             teamMembers.add(memberData);
         }
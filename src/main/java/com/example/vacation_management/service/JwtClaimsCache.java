@@ -0,0 +1,95 @@
+package com.example.vacation_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+public class JwtClaimsCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${jwt.cache.ttl:5m}")
+    private Duration ttl;
+
+    private Cache<String, Claims> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.claims");
+    }
+
+    public Claims get(String token, Function<String, Claims> verifier) {
+        return cache.get(digest(token), key -> verifier.apply(token));
+    }
+
+    /**
+     * Time left before the token's cached claims expire, or empty when the token is not cached.
+     */
+    Optional<Duration> expiresAfter(String token) {
+        return cache.policy().expireVariably().flatMap(policy -> policy.getExpiresAfter(digest(token)));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long ttlNanos = ttl.toNanos();
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return ttlNanos;
+            }
+            long untilExpiration = Duration.ofMillis(expiration.getTime() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiration));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+}
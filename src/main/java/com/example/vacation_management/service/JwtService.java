@@ -3,11 +3,14 @@ package com.example.vacation_management.service;
 
 import com.example.vacation_management.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -28,6 +31,21 @@ public class JwtService {
     @Value("${jwt.expiration:86400000}")
     private Long jwtExpiration;
 
+    @Autowired
+    private JwtClaimsCache jwtClaimsCache;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", user.getId());
@@ -35,6 +53,9 @@ public class JwtService {
         claims.put("firstName", user.getFirstName());
         claims.put("lastName", user.getLastName());
         claims.put("role", user.getRole().name());
+        if (user.getCreatedAt() != null) {
+            claims.put("createdAt", user.getCreatedAt().toString());
+        }
 
         return createToken(claims, user.getEmail());
     }
@@ -53,7 +74,15 @@ public class JwtService {
     }
 
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
+    }
+
+    /**
+     * Verified claims for the token. Every accessor below goes through this, so a token's
+     * signature is checked once and later calls are served from {@link JwtClaimsCache}.
+     */
+    public Claims verifyToken(String token) {
+        return jwtClaimsCache.get(token, this::parseClaims);
     }
 
     public String extractEmail(String token) {
@@ -61,13 +90,11 @@ public class JwtService {
     }
 
     public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        return Long.valueOf(claims.get("userId").toString());
+        return extractClaim(token, claims -> Long.valueOf(claims.get("userId").toString()));
     }
 
     public String extractRole(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("role").toString();
+        return extractClaim(token, claims -> claims.get("role").toString());
     }
 
     public Date extractExpiration(String token) {
@@ -75,17 +102,12 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verifyToken(token));
     }
 
-    private Claims extractAllClaims(String token) {
+    private Claims parseClaims(String token) {
         try {
-            return Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
             logger.error("Failed to extract claims from token: {}", e.getMessage());
             throw new RuntimeException("Invalid JWT token");
@@ -108,7 +130,6 @@ public class JwtService {
 
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
             return !isTokenExpired(token);
         } catch (Exception e) {
             logger.error("Token validation failed: {}", e.getMessage());
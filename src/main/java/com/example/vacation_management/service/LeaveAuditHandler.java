@@ -0,0 +1,27 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes every committed leave request status change to the {@code audit.leave-requests} log.
+ */
+@Component
+public class LeaveAuditHandler implements OutboxHandler {
+
+    private static final Logger auditLog = LoggerFactory.getLogger("audit.leave-requests");
+
+    @Override
+    public boolean supports(OutboxEvent event) {
+        return OutboxWriter.LEAVE_REQUEST.equals(event.getAggregateType());
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        auditLog.info("outbox={} request={} event={} at={} payload={}", event.getId(), event.getAggregateId(),
+                event.getEventType(), event.getCreatedAt(), event.getPayload());
+    }
+
+}
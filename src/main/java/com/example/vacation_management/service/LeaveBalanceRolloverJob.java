@@ -0,0 +1,20 @@
+package com.example.vacation_management.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Component
+public class LeaveBalanceRolloverJob {
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Scheduled(cron = "${leave.rollover.cron:0 0 1 1 1 *}")
+    public void rolloverToCurrentYear() {
+        leaveBalanceService.rolloverToYear(LocalDate.now().getYear(), null, null);
+    }
+
+}
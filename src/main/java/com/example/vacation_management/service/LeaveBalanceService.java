@@ -1,28 +1,63 @@
 package com.example.vacation_management.service;
 
 
+import com.example.vacation_management.dto.CursorPageDto;
 import com.example.vacation_management.dto.LeaveBalanceDto;
 import com.example.vacation_management.entity.LeaveBalance;
 import com.example.vacation_management.entity.User;
 import com.example.vacation_management.repository.LeaveBalanceRepository;
 import com.example.vacation_management.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class LeaveBalanceService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LeaveBalanceService.class);
+
+    private static final String ROLLOVER_SQL =
+            "INSERT INTO leave_balances (id, user_id, year, total_days, used_days, remaining_days) " +
+            "SELECT %1$s, u.id, :year, :defaultDays + LEAST(COALESCE(prev.remaining_days, 0), :cap), 0, " +
+            ":defaultDays + LEAST(COALESCE(prev.remaining_days, 0), :cap) " +
+            "FROM users u " +
+            "LEFT JOIN leave_balances prev ON prev.user_id = u.id AND prev.year = :previousYear " +
+            "WHERE u.role = 'EMPLOYEE' " +
+            "AND NOT EXISTS (SELECT 1 FROM leave_balances lb WHERE lb.user_id = u.id AND lb.year = :year)";
+
     @Autowired
     private LeaveBalanceRepository leaveBalanceRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${leave.balance.default-days:26}")
+    private int defaultDays;
+
+    @Value("${leave.rollover.carry-over-cap:5}")
+    private int carryOverCap;
+
     public Optional<LeaveBalance> getCurrentYearBalance(Long userId) {
         int currentYear = LocalDate.now().getYear();
         return leaveBalanceRepository.findByUserIdAndYear(userId, currentYear);
@@ -53,7 +88,9 @@ public class LeaveBalanceService {
         balance.setUsedDays(balanceDto.getUsedDays() != null ? balanceDto.getUsedDays() : 0);
         balance.updateRemainingDays();
 
-        return leaveBalanceRepository.save(balance);
+        LeaveBalance saved = leaveBalanceRepository.save(balance);
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.LEAVE_BALANCES);
+        return saved;
     }
 
     public LeaveBalance updateBalance(Long balanceId, LeaveBalanceDto balanceDto) {
@@ -66,7 +103,9 @@ public class LeaveBalanceService {
         }
         balance.updateRemainingDays();
 
-        return leaveBalanceRepository.save(balance);
+        LeaveBalance saved = leaveBalanceRepository.save(balance);
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.LEAVE_BALANCES);
+        return saved;
     }
 
     public LeaveBalance createDefaultBalanceForUser(User user, Integer year, Integer defaultDays) {
@@ -75,29 +114,87 @@ public class LeaveBalanceService {
         }
 
         LeaveBalance balance = new LeaveBalance(user, defaultDays, year);
-        return leaveBalanceRepository.save(balance);
+        LeaveBalance saved = leaveBalanceRepository.save(balance);
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.LEAVE_BALANCES);
+        return saved;
     }
 
-    public LeaveBalance useDays(Long userId, Integer year, Integer daysToUse) {
-        LeaveBalance balance = leaveBalanceRepository.findByUserIdAndYear(userId, year)
-                .orElseThrow(() -> new RuntimeException("Leave balance not found for user " + userId + " and year " + year));
+    /**
+     * Creates the balances of {@code year} for every employee that does not have one yet, in a single
+     * INSERT ... SELECT. Unused days of the previous year are carried over up to the cap.
+     */
+    @Transactional
+    public Map<String, Object> rolloverToYear(Integer year, Integer totalDays, Integer maxCarryOver) {
+        int days = totalDays != null ? totalDays : defaultDays;
+        int cap = maxCarryOver != null ? maxCarryOver : carryOverCap;
+        if (days < 0 || cap < 0) {
+            throw new RuntimeException("Default days and carry-over cap cannot be negative");
+        }
+
+        String nextId = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSelectSequenceNextValString("leave_balances_seq");
+
+        long startedAt = System.nanoTime();
+        int created = entityManager.createNativeQuery(String.format(ROLLOVER_SQL, nextId))
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(LeaveBalance.class)
+                .setParameter("year", year)
+                .setParameter("previousYear", year - 1)
+                .setParameter("defaultDays", days)
+                .setParameter("cap", cap)
+                .executeUpdate();
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        logger.info("Leave balance rollover to {} created {} balances in {} ms", year, created, elapsedMillis);
+        if (created > 0) {
+            aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.LEAVE_BALANCES);
+        }
 
-        balance.useDays(daysToUse);
-        return leaveBalanceRepository.save(balance);
+        Map<String, Object> result = new HashMap<>();
+        result.put("year", year);
+        result.put("defaultDays", days);
+        result.put("carryOverCap", cap);
+        result.put("created", created);
+        result.put("durationMs", elapsedMillis);
+        return result;
     }
 
+    @Transactional
+    public LeaveBalance useDays(Long userId, Integer year, Integer daysToUse) {
+        if (leaveBalanceRepository.deductDays(userId, year, daysToUse) == 0) {
+            LeaveBalance balance = reloadBalance(userId, year);
+            throw new RuntimeException("Not enough remaining vacation days. Available: " +
+                    balance.getRemainingDays() + ", requested: " + daysToUse);
+        }
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.LEAVE_BALANCES);
+        return reloadBalance(userId, year);
+    }
+
+    @Transactional
     public LeaveBalance returnDays(Long userId, Integer year, Integer daysToReturn) {
+        if (leaveBalanceRepository.returnDays(userId, year, daysToReturn) == 0) {
+            throw new RuntimeException("Leave balance not found for user " + userId + " and year " + year);
+        }
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.LEAVE_BALANCES);
+        return reloadBalance(userId, year);
+    }
+
+    private LeaveBalance reloadBalance(Long userId, Integer year) {
         LeaveBalance balance = leaveBalanceRepository.findByUserIdAndYear(userId, year)
                 .orElseThrow(() -> new RuntimeException("Leave balance not found for user " + userId + " and year " + year));
-
-        balance.returnDays(daysToReturn);
-        return leaveBalanceRepository.save(balance);
+        entityManager.refresh(balance);
+        return balance;
     }
 
     public List<LeaveBalanceDto> getAllBalancesForYear(Integer year) {
-        return leaveBalanceRepository.findByYear(year).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return leaveBalanceRepository.findDtosByYear(year);
+    }
+
+    public CursorPageDto<LeaveBalanceDto> getBalancesForYearPage(Integer year, String cursor, Integer size) {
+        int pageSize = CursorPageDto.clampSize(size);
+        List<LeaveBalanceDto> rows = leaveBalanceRepository.findDtosByYearAndIdGreaterThan(
+                year, CursorPageDto.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPageDto.of(rows, pageSize, LeaveBalanceDto::getId, Function.identity());
     }
 
     public boolean hasEnoughDays(Long userId, Integer year, Integer requiredDays) {
@@ -105,17 +202,4 @@ public class LeaveBalanceService {
         return balance.map(b -> b.canUseDays(requiredDays)).orElse(false);
     }
 
-    private LeaveBalanceDto convertToDto(LeaveBalance balance) {
-        LeaveBalanceDto dto = new LeaveBalanceDto();
-        dto.setId(balance.getId());
-        dto.setUserId(balance.getUser().getId());
-        dto.setTotalDays(balance.getTotalDays());
-        dto.setUsedDays(balance.getUsedDays());
-        dto.setRemainingDays(balance.getRemainingDays());
-        dto.setYear(balance.getYear());
-        dto.setUserEmail(balance.getUser().getEmail());
-        dto.setUserFullName(balance.getUser().getFirstName() + " " + balance.getUser().getLastName());
-        return dto;
-    }
-
 }
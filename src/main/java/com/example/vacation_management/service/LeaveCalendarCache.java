@@ -0,0 +1,114 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.entity.LeaveStatus;
+import com.example.vacation_management.event.LeaveRequestChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Computed month calendars, keyed by month and response format. Entries are evicted after an
+ * approval or cancellation commits, for the months the request's date range touches only. Pending
+ * and rejected requests never appear on the calendar, so their events leave the cache alone. The
+ * calendars also carry user names, so renaming or deleting a user drops every entry.
+ */
+@Component
+public class LeaveCalendarCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${dashboard.calendar-cache.max-size:240}")
+    private long maxSize;
+
+    @Value("${dashboard.calendar-cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<String, Map<String, Object>> cache;
+    private Counter invalidations;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "dashboard.calendar");
+        invalidations = Counter.builder("cache.invalidations")
+                .tag("cache", "dashboard.calendar")
+                .description("Entries removed because the underlying leave requests changed")
+                .register(meterRegistry);
+    }
+
+    public Map<String, Object> get(YearMonth month, Function<YearMonth, Map<String, Object>> builder) {
+        return get(month, "daily", () -> builder.apply(month));
+    }
+
+    public Map<String, Object> get(YearMonth month, String format, Supplier<Map<String, Object>> builder) {
+        return cache.get(month + "/" + format, key -> builder.get());
+    }
+
+    // Runs before AggregateVersions moves the ETag, so a new tag is never served with an old calendar.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLeaveRequestChanged(LeaveRequestChangedEvent event) {
+        if (event.getStatus() == LeaveStatus.PENDING || event.getStatus() == LeaveStatus.REJECTED) {
+            return;
+        }
+        for (YearMonth month : event.getAffectedMonths()) {
+            String prefix = month + "/";
+            cache.asMap().keySet().removeIf(key -> {
+                if (key.startsWith(prefix)) {
+                    invalidations.increment();
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Drops every entry now and again once the surrounding transaction commits, so a calendar
+     * rebuilt in between from the old rows does not outlive the change.
+     */
+    public void evictAllAfterCommit() {
+        evictAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAll();
+                }
+            });
+        }
+    }
+
+    private void evictAll() {
+        invalidations.increment(cache.estimatedSize());
+        cache.invalidateAll();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.event.LeaveRequestChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed leave request changes out to Server-Sent Event subscribers. Publishing never
+ * blocks: each event is serialized once, appended to a replay buffer and offered to every
+ * subscriber's bounded queue. Queues are drained on virtual threads, so an idle connection holds
+ * no thread at all and a stalled socket only parks its own sender. A subscriber whose queue
+ * overflows is disconnected and can resume with {@code Last-Event-ID}.
+ */
+@Component
+public class LeaveEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveEventHub.class);
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @Value("${leave.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${leave.events.replay-size:1024}")
+    private int replaySize;
+
+    @Value("${leave.events.timeout:30m}")
+    private Duration timeout;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Deque<Frame> replay = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long sequence;
+    private ExecutorService senders;
+
+    @PostConstruct
+    public void init() {
+        senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("leave-events-", 0).factory());
+        Gauge.builder("leave.events.subscribers", subscribers, Set::size)
+                .description("Open leave request event streams")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.close(false));
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        register(emitter, lastEventId);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscriber.close(false));
+        emitter.onTimeout(() -> subscriber.close(false));
+        emitter.onError(error -> subscriber.close(false));
+
+        synchronized (replay) {
+            List<Set<DataWithMediaType>> missed = missedSince(lastEventId);
+            if (missed == null) {
+                subscriber.offer(SseEmitter.event().name("reset").data("{}").build());
+            } else {
+                missed.forEach(subscriber::offer);
+            }
+            subscribers.add(subscriber);
+        }
+    }
+
+    /**
+     * Events after {@code lastEventId}, or null when they are no longer all in the replay buffer
+     * (or the id comes from an earlier process) and the client has to reload its list instead.
+     */
+    private List<Set<DataWithMediaType>> missedSince(String lastEventId) {
+        List<Set<DataWithMediaType>> missed = new ArrayList<>();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return missed;
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        long lastSeen;
+        try {
+            lastSeen = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence;
+        if (lastSeen < oldest - 1 || lastSeen > sequence || sequence - lastSeen > bufferSize) {
+            return null;
+        }
+        for (Frame frame : replay) {
+            if (frame.sequence > lastSeen) {
+                missed.add(frame.data);
+            }
+        }
+        return missed;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLeaveRequestChanged(LeaveRequestChangedEvent event) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("requestId", event.getRequestId());
+        payload.put("userId", event.getUserId());
+        payload.put("status", event.getStatus());
+        payload.put("startDate", event.getStartDate());
+        payload.put("endDate", event.getEndDate());
+        publish(event.getAction(), payload);
+    }
+
+    void publish(String name, Map<String, Object> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize leave event", e);
+        }
+
+        synchronized (replay) {
+            long id = ++sequence;
+            Frame frame = new Frame(id, SseEmitter.event().id(epoch + "-" + id).name(name).data(json).build());
+            replay.addLast(frame);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            subscribers.forEach(subscriber -> subscriber.offer(frame.data));
+        }
+        operationMetrics.increment("leave.events.published", "event", name);
+    }
+
+    @Scheduled(fixedDelayString = "${leave.events.heartbeat:15s}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private record Frame(long sequence, Set<DataWithMediaType> data) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void offer(Set<DataWithMediaType> data) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(data)) {
+                operationMetrics.increment("leave.events.disconnected", "reason", "slow_consumer");
+                logger.debug("Disconnecting leave event subscriber with {} undelivered events", queue.size());
+                close(true);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> next;
+                while (!closed.get() && (next = queue.poll()) != null) {
+                    emitter.send(next);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(false);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty() && !closed.get() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        /**
+         * Completing takes the emitter's lock, which a blocked send may hold, so it runs on a sender
+         * thread rather than the publishing one.
+         */
+        private void close(boolean complete) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscribers.remove(this);
+            queue.clear();
+            if (complete) {
+                senders.execute(emitter::complete);
+            }
+        }
+    }
+
+}
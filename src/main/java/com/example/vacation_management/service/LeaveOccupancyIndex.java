@@ -0,0 +1,242 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.repository.LeaveRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Number of approved leaves per day, kept in a lazy segment tree keyed by epoch day so the
+ * "max N people on leave" rule is a range-max query instead of a database round trip.
+ */
+@Component
+public class LeaveOccupancyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveOccupancyIndex.class);
+
+    private static final int HISTORY_DAYS = 366;
+    private static final int MIN_SPAN_DAYS = 4 * 366;
+
+    public enum Reservation {
+        RESERVED,
+        NO_CAPACITY,
+        ALREADY_BOOKED
+    }
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Value("${leave.capacity.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private final Map<Long, long[]> intervals = new HashMap<>();
+
+    private long origin;
+    private int size;
+    private int[] max;
+    private int[] add;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildFromDatabase();
+    }
+
+    public synchronized void rebuildFromDatabase() {
+        LocalDate from = LocalDate.now().minusDays(HISTORY_DAYS);
+        long lastDay = from.toEpochDay();
+        intervals.clear();
+        for (Object[] row : leaveRequestRepository.findApprovedRangesEndingOnOrAfter(from)) {
+            long[] interval = {((LocalDate) row[1]).toEpochDay(), ((LocalDate) row[2]).toEpochDay()};
+            intervals.put((Long) row[0], interval);
+            lastDay = Math.max(lastDay, interval[1]);
+        }
+        resize(from.toEpochDay(), lastDay);
+        logger.info("Leave occupancy index rebuilt from {} approved requests", intervals.size());
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public boolean hasCapacity(LocalDate startDate, LocalDate endDate) {
+        return maxOccupancy(startDate, endDate) < maxConcurrent;
+    }
+
+    public synchronized int maxOccupancy(LocalDate startDate, LocalDate endDate) {
+        ensureInitialized();
+        long from = Math.max(startDate.toEpochDay(), origin);
+        long to = Math.min(endDate.toEpochDay(), origin + size - 1);
+        if (from > to) {
+            return 0;
+        }
+        return query(1, 0, size - 1, (int) (from - origin), (int) (to - origin));
+    }
+
+    public int occupancyOn(LocalDate day) {
+        return maxOccupancy(day, day);
+    }
+
+    /**
+     * Atomically checks capacity and books the range for the given request. When called inside a
+     * transaction the booking is released again if the transaction does not commit. A request that
+     * is already booked, by a committed approval or one still in flight, is reported as
+     * {@link Reservation#ALREADY_BOOKED} and left untouched, since that booking belongs to the other
+     * transaction.
+     */
+    public synchronized Reservation tryReserve(Long requestId, LocalDate startDate, LocalDate endDate) {
+        if (intervals.containsKey(requestId)) {
+            return Reservation.ALREADY_BOOKED;
+        }
+        if (!hasCapacity(startDate, endDate)) {
+            return Reservation.NO_CAPACITY;
+        }
+        put(requestId, startDate, endDate);
+        long[] booking = intervals.get(requestId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        removeBooking(requestId, booking);
+                    }
+                }
+            });
+        }
+        return Reservation.RESERVED;
+    }
+
+    public void releaseAfterCommit(Long requestId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(requestId);
+                }
+            });
+        } else {
+            remove(requestId);
+        }
+    }
+
+    public synchronized void put(Long requestId, LocalDate startDate, LocalDate endDate) {
+        ensureInitialized();
+        remove(requestId);
+        long start = startDate.toEpochDay();
+        long end = endDate.toEpochDay();
+        intervals.put(requestId, new long[]{start, end});
+        if (start < origin || end >= origin + size) {
+            resize(Math.min(start, origin), Math.max(end, origin + size - 1));
+        } else {
+            apply(start, end, 1);
+        }
+    }
+
+    public synchronized void remove(Long requestId) {
+        long[] interval = intervals.remove(requestId);
+        if (interval != null && max != null) {
+            apply(interval[0], interval[1], -1);
+        }
+    }
+
+    /**
+     * Removes the request's interval only if it is still the given booking, so a rolled-back
+     * reservation never drops one made since by another transaction.
+     */
+    private synchronized void removeBooking(Long requestId, long[] booking) {
+        if (intervals.remove(requestId, booking) && max != null) {
+            apply(booking[0], booking[1], -1);
+        }
+    }
+
+    /**
+     * Recomputes per-day occupancy from the repository for the given range and returns the days
+     * on which the index disagrees with it.
+     */
+    public List<LocalDate> findInconsistentDays(LocalDate from, LocalDate to) {
+        int days = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+        int[] expected = new int[days + 1];
+        for (Object[] row : leaveRequestRepository.findApprovedRangesEndingOnOrAfter(from)) {
+            long start = Math.max(((LocalDate) row[1]).toEpochDay(), from.toEpochDay());
+            long end = Math.min(((LocalDate) row[2]).toEpochDay(), to.toEpochDay());
+            if (start <= end) {
+                expected[(int) (start - from.toEpochDay())]++;
+                expected[(int) (end - from.toEpochDay()) + 1]--;
+            }
+        }
+
+        List<LocalDate> inconsistentDays = new ArrayList<>();
+        int running = 0;
+        for (int i = 0; i < days; i++) {
+            running += expected[i];
+            LocalDate day = from.plusDays(i);
+            if (occupancyOn(day) != running) {
+                inconsistentDays.add(day);
+            }
+        }
+        return inconsistentDays;
+    }
+
+    private void ensureInitialized() {
+        if (max == null) {
+            rebuildFromDatabase();
+        }
+    }
+
+    private void resize(long firstDay, long lastDay) {
+        int span = (int) Math.max(lastDay - firstDay + 1, MIN_SPAN_DAYS);
+        size = Integer.highestOneBit(span - 1) << 1;
+        origin = firstDay;
+        max = new int[2 * size];
+        add = new int[2 * size];
+        for (long[] interval : intervals.values()) {
+            apply(interval[0], interval[1], 1);
+        }
+    }
+
+    private void apply(long startDay, long endDay, int delta) {
+        long from = Math.max(startDay, origin);
+        long to = Math.min(endDay, origin + size - 1);
+        if (from <= to) {
+            update(1, 0, size - 1, (int) (from - origin), (int) (to - origin), delta);
+        }
+    }
+
+    private void update(int node, int left, int right, int from, int to, int delta) {
+        if (to < left || right < from) {
+            return;
+        }
+        if (from <= left && right <= to) {
+            max[node] += delta;
+            add[node] += delta;
+            return;
+        }
+        int mid = (left + right) >>> 1;
+        update(2 * node, left, mid, from, to, delta);
+        update(2 * node + 1, mid + 1, right, from, to, delta);
+        max[node] = add[node] + Math.max(max[2 * node], max[2 * node + 1]);
+    }
+
+    private int query(int node, int left, int right, int from, int to) {
+        if (to < left || right < from) {
+            return Integer.MIN_VALUE;
+        }
+        if (from <= left && right <= to) {
+            return max[node];
+        }
+        int mid = (left + right) >>> 1;
+        return add[node] + Math.max(query(2 * node, left, mid, from, to), query(2 * node + 1, mid + 1, right, from, to));
+    }
+
+}
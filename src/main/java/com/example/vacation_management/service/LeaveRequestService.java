@@ -1,26 +1,79 @@
 package com.example.vacation_management.service;
 
 
+import com.example.vacation_management.dto.BulkLeaveResultDto;
+import com.example.vacation_management.dto.CursorPageDto;
+import com.example.vacation_management.dto.ExportFormat;
 import com.example.vacation_management.dto.LeaveRequestDto;
+import com.example.vacation_management.entity.LeaveBalance;
 import com.example.vacation_management.entity.LeaveRequest;
 import com.example.vacation_management.entity.LeaveStatus;
 import com.example.vacation_management.entity.LeaveType;
 import com.example.vacation_management.entity.User;
+import com.example.vacation_management.event.LeaveRequestChangedEvent;
+import com.example.vacation_management.repository.LeaveBalanceRepository;
 import com.example.vacation_management.repository.LeaveRequestRepository;
 import com.example.vacation_management.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class LeaveRequestService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LeaveRequestService.class);
+
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
+    private static final String WORKFLOW_TIMER = "leave.workflow";
+    private static final String STAGE_TIMER = "leave.workflow.stage";
+    private static final String REJECTION_COUNTER = "leave.workflow.rejections";
+
+    private static final int BULK_BATCH_SIZE = 100;
+
+    private static final String APPROVE_PENDING_SQL =
+            "UPDATE leave_requests SET status = 'APPROVED' WHERE id = ? AND status = 'PENDING'";
+    private static final String REJECT_PENDING_SQL =
+            "UPDATE leave_requests SET status = 'REJECTED' WHERE id = ? AND status = 'PENDING'";
+    private static final String DEDUCT_BALANCE_SQL =
+            "UPDATE leave_balances SET used_days = used_days + ?, remaining_days = remaining_days - ? " +
+            "WHERE user_id = ? AND year = ? AND remaining_days >= ?";
+
+    private static final String CSV_HEADER = "id,userId,userEmail,userFullName,startDate,endDate,workingDays,leaveType,status,createdAt,comment";
+
     @Autowired
     private LeaveRequestRepository leaveRequestRepository;
 
@@ -30,35 +83,77 @@ public class LeaveRequestService {
     @Autowired
     private LeaveBalanceService leaveBalanceService;
 
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LeaveOccupancyIndex leaveOccupancyIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
     public List<LeaveRequestDto> getAllRequests() {
-        return leaveRequestRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return leaveRequestRepository.findAllDtos();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<LeaveRequestDto> getRequestsPage(String cursor, Integer size) {
+        int pageSize = CursorPageDto.clampSize(size);
+        List<LeaveRequestDto> rows = leaveRequestRepository.findDtosByIdGreaterThan(
+                CursorPageDto.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPageDto.of(rows, pageSize, LeaveRequestDto::getId, Function.identity());
+    }
+
+    @Transactional(readOnly = true)
     public Optional<LeaveRequest> getRequestById(Long id) {
         return leaveRequestRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<LeaveRequestDto> getRequestsByUser(Long userId) {
-        return leaveRequestRepository.findByUserId(userId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return leaveRequestRepository.findDtosByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<LeaveRequestDto> getRequestsByUserAndYear(Long userId, Integer year) {
-        return leaveRequestRepository.findByUserIdAndYear(userId, year).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return leaveRequestRepository.findDtosByUserIdAndYear(userId, year);
     }
 
+    // The pending lists are polled with If-None-Match, so they read the primary like the ETag versions do.
+    @Transactional
     public List<LeaveRequestDto> getPendingRequests() {
-        return leaveRequestRepository.findPendingRequests().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return leaveRequestRepository.findPendingDtos();
+    }
+
+    @Transactional
+    public CursorPageDto<LeaveRequestDto> getPendingRequestsPage(String cursor, Integer size) {
+        int pageSize = CursorPageDto.clampSize(size);
+        List<LeaveRequestDto> rows = leaveRequestRepository.findDtosByStatusAndIdGreaterThan(
+                LeaveStatus.PENDING, CursorPageDto.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPageDto.of(rows, pageSize, LeaveRequestDto::getId, Function.identity());
     }
 
     public LeaveRequest createLeaveRequest(LeaveRequestDto requestDto) {
+        return operationMetrics.time(WORKFLOW_TIMER, () -> doCreateLeaveRequest(requestDto), "operation", "create");
+    }
+
+    private LeaveRequest doCreateLeaveRequest(LeaveRequestDto requestDto) {
 
         User user = userRepository.findById(requestDto.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + requestDto.getUserId()));
@@ -73,19 +168,24 @@ public class LeaveRequestService {
         }
 
 
-        if (!canApproveRequest(requestDto.getStartDate(), requestDto.getEndDate())) {
-            throw new RuntimeException("Cannot create request: maximum 2 people can be on leave at the same time");
+        boolean hasCapacity = operationMetrics.time(STAGE_TIMER,
+                () -> leaveOccupancyIndex.hasCapacity(requestDto.getStartDate(), requestDto.getEndDate()),
+                "operation", "create", "stage", "capacity_check");
+        if (!hasCapacity) {
+            operationMetrics.increment(REJECTION_COUNTER, "operation", "create", "reason", "capacity");
+            throw new RuntimeException("Cannot create request: maximum " + leaveOccupancyIndex.getMaxConcurrent() +
+                    " people can be on leave at the same time");
         }
 
 
         if (requestDto.getLeaveType() == LeaveType.PAID) {
-            LeaveRequest tempRequest = new LeaveRequest();
-            tempRequest.setStartDate(requestDto.getStartDate());
-            tempRequest.setEndDate(requestDto.getEndDate());
-            tempRequest.calculateWorkingDays();
-
+            int workingDays = LeaveRequest.countWorkingDays(requestDto.getStartDate(), requestDto.getEndDate());
             int year = requestDto.getStartDate().getYear();
-            if (!leaveBalanceService.hasEnoughDays(requestDto.getUserId(), year, tempRequest.getWorkingDays())) {
+            boolean hasEnoughDays = operationMetrics.time(STAGE_TIMER,
+                    () -> leaveBalanceService.hasEnoughDays(requestDto.getUserId(), year, workingDays),
+                    "operation", "create", "stage", "balance_check");
+            if (!hasEnoughDays) {
+                operationMetrics.increment(REJECTION_COUNTER, "operation", "create", "reason", "balance");
                 throw new RuntimeException("Not enough vacation days available");
             }
         }
@@ -97,13 +197,19 @@ public class LeaveRequestService {
         request.setEndDate(requestDto.getEndDate());
         request.setLeaveType(requestDto.getLeaveType());
         request.setComment(requestDto.getComment());
-        request.calculateWorkingDays();
 
-        return leaveRequestRepository.save(request);
+        LeaveRequest savedRequest = operationMetrics.time(STAGE_TIMER, () -> leaveRequestRepository.save(request),
+                "operation", "create", "stage", "save");
+        eventPublisher.publishEvent(LeaveRequestChangedEvent.of(savedRequest));
+        return savedRequest;
     }
 
 
     public LeaveRequest approveRequest(Long requestId) {
+        return operationMetrics.time(WORKFLOW_TIMER, () -> doApproveRequest(requestId), "operation", "approve");
+    }
+
+    private LeaveRequest doApproveRequest(Long requestId) {
         LeaveRequest request = leaveRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Leave request not found with id: " + requestId));
 
@@ -112,25 +218,38 @@ public class LeaveRequestService {
         }
 
 
-        if (!canApproveRequest(request.getStartDate(), request.getEndDate())) {
-            throw new RuntimeException("Cannot approve: maximum 2 people can be on leave at the same time");
+        LeaveOccupancyIndex.Reservation reservation = operationMetrics.time(STAGE_TIMER,
+                () -> leaveOccupancyIndex.tryReserve(request.getId(), request.getStartDate(), request.getEndDate()),
+                "operation", "approve", "stage", "capacity_check");
+        if (reservation == LeaveOccupancyIndex.Reservation.ALREADY_BOOKED) {
+            throw new RuntimeException("Request was modified concurrently");
+        }
+        if (reservation == LeaveOccupancyIndex.Reservation.NO_CAPACITY) {
+            operationMetrics.increment(REJECTION_COUNTER, "operation", "approve", "reason", "capacity");
+            throw new RuntimeException("Cannot approve: maximum " + leaveOccupancyIndex.getMaxConcurrent() +
+                    " people can be on leave at the same time");
         }
 
 
         if (request.getLeaveType() == LeaveType.PAID) {
             int year = request.getStartDate().getYear();
             try {
-                leaveBalanceService.useDays(request.getUser().getId(), year, request.getWorkingDays());
+                operationMetrics.time(STAGE_TIMER,
+                        () -> leaveBalanceService.useDays(request.getUser().getId(), year, request.getWorkingDays()),
+                        "operation", "approve", "stage", "balance_update");
             } catch (RuntimeException e) {
+                operationMetrics.increment(REJECTION_COUNTER, "operation", "approve", "reason", "balance");
                 throw new RuntimeException("Cannot approve request: " + e.getMessage());
             }
         }
 
         request.setStatus(LeaveStatus.APPROVED);
 
-        LeaveRequest savedRequest = leaveRequestRepository.save(request);
+        LeaveRequest savedRequest = operationMetrics.time(STAGE_TIMER, () -> leaveRequestRepository.save(request),
+                "operation", "approve", "stage", "save");
 
         savedRequest.getUser().getFirstName();
+        eventPublisher.publishEvent(LeaveRequestChangedEvent.of(savedRequest));
 
         return savedRequest;
     }
@@ -145,11 +264,214 @@ public class LeaveRequestService {
         }
 
         request.setStatus(LeaveStatus.REJECTED);
-        return leaveRequestRepository.save(request);
+        LeaveRequest savedRequest = leaveRequestRepository.save(request);
+        eventPublisher.publishEvent(LeaveRequestChangedEvent.of(savedRequest));
+        return savedRequest;
+    }
+
+
+    /**
+     * Approves or rejects many pending requests at once. Requests are loaded in one query and checked
+     * in start-date order against the occupancy index and in-memory balances, then written with JDBC
+     * batches. Requests that fail a check are reported individually and do not abort the batch.
+     */
+    public List<BulkLeaveResultDto> processBulk(List<Long> ids, String action) {
+        boolean approve = "approve".equalsIgnoreCase(action);
+        if (!approve && !"reject".equalsIgnoreCase(action)) {
+            throw new RuntimeException("Unsupported bulk action: " + action + ". Use approve or reject");
+        }
+        String operation = approve ? "bulk_approve" : "bulk_reject";
+        return operationMetrics.time(WORKFLOW_TIMER, () -> doProcessBulk(ids, approve, operation), "operation", operation);
+    }
+
+    private List<BulkLeaveResultDto> doProcessBulk(List<Long> ids, boolean approve, String operation) {
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        List<LeaveRequest> requests = leaveRequestRepository.findAllWithUserByIdInOrderByStartDate(requestedIds);
+        LeaveStatus targetStatus = approve ? LeaveStatus.APPROVED : LeaveStatus.REJECTED;
+
+        Map<Long, BulkLeaveResultDto> results = new HashMap<>();
+        Map<String, LeaveBalance> balances = approve ? loadBalances(requests) : Map.of();
+        Map<LeaveBalance, Integer> deductions = new LinkedHashMap<>();
+        Map<Long, LeaveBalance> chargedBalances = new HashMap<>();
+        Set<Long> reserved = new HashSet<>();
+        List<LeaveRequest> accepted = new ArrayList<>();
+
+        for (LeaveRequest request : requests) {
+            Long id = request.getId();
+            if (request.getStatus() != LeaveStatus.PENDING) {
+                results.put(id, BulkLeaveResultDto.failed(id, request.getStatus(),
+                        "Only pending requests can be " + (approve ? "approved" : "rejected")));
+                continue;
+            }
+
+            if (approve && request.getLeaveType() == LeaveType.PAID) {
+                Long userId = request.getUser().getId();
+                int year = request.getStartDate().getYear();
+                LeaveBalance balance = balances.get(balanceKey(userId, year));
+                if (balance == null) {
+                    results.put(id, BulkLeaveResultDto.failed(id, request.getStatus(),
+                            "Leave balance not found for user " + userId + " and year " + year));
+                    continue;
+                }
+                int available = balance.getRemainingDays() - deductions.getOrDefault(balance, 0);
+                if (available < request.getWorkingDays()) {
+                    operationMetrics.increment(REJECTION_COUNTER, "operation", operation, "reason", "balance");
+                    results.put(id, BulkLeaveResultDto.failed(id, request.getStatus(),
+                            "Not enough remaining vacation days. Available: " + available +
+                                    ", requested: " + request.getWorkingDays()));
+                    continue;
+                }
+                if (!reserveCapacity(request, operation, results, reserved)) {
+                    continue;
+                }
+                deductions.merge(balance, request.getWorkingDays(), Integer::sum);
+                chargedBalances.put(id, balance);
+            } else if (approve && !reserveCapacity(request, operation, results, reserved)) {
+                continue;
+            }
+
+            accepted.add(request);
+        }
+
+        int[][] updateCounts = jdbcTemplate.batchUpdate(approve ? APPROVE_PENDING_SQL : REJECT_PENDING_SQL,
+                accepted, BULK_BATCH_SIZE, (ps, request) -> ps.setLong(1, request.getId()));
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                LeaveRequest request = accepted.get(index++);
+                Long id = request.getId();
+                if (count != 0) {
+                    results.put(id, BulkLeaveResultDto.succeeded(id, targetStatus));
+                    eventPublisher.publishEvent(new LeaveRequestChangedEvent(id, request.getUser().getId(),
+                            targetStatus, request.getStartDate(), request.getEndDate()));
+                    continue;
+                }
+                results.put(id, BulkLeaveResultDto.failed(id, request.getStatus(), "Request was modified concurrently"));
+                if (approve) {
+                    if (reserved.remove(id)) {
+                        leaveOccupancyIndex.remove(id);
+                    }
+                    LeaveBalance balance = chargedBalances.get(id);
+                    if (balance != null) {
+                        deductions.merge(balance, -request.getWorkingDays(), Integer::sum);
+                    }
+                }
+            }
+        }
+
+        if (approve) {
+            applyDeductions(deductions);
+        }
+
+        logger.info("Bulk {} of {} requests: {} succeeded", approve ? "approval" : "rejection",
+                requestedIds.size(), results.values().stream().filter(BulkLeaveResultDto::isSuccess).count());
+
+        List<BulkLeaveResultDto> ordered = new ArrayList<>(requestedIds.size());
+        for (Long id : requestedIds) {
+            ordered.add(results.getOrDefault(id,
+                    BulkLeaveResultDto.failed(id, null, "Leave request not found with id: " + id)));
+        }
+        return ordered;
+    }
+
+    /**
+     * Books the request's range and records its id in {@code reserved}, so a batch only ever
+     * releases bookings it made itself.
+     */
+    private boolean reserveCapacity(LeaveRequest request, String operation, Map<Long, BulkLeaveResultDto> results,
+                                    Set<Long> reserved) {
+        LeaveOccupancyIndex.Reservation reservation =
+                leaveOccupancyIndex.tryReserve(request.getId(), request.getStartDate(), request.getEndDate());
+        if (reservation == LeaveOccupancyIndex.Reservation.RESERVED) {
+            reserved.add(request.getId());
+            return true;
+        }
+        if (reservation == LeaveOccupancyIndex.Reservation.ALREADY_BOOKED) {
+            results.put(request.getId(), BulkLeaveResultDto.failed(request.getId(), request.getStatus(),
+                    "Request was modified concurrently"));
+            return false;
+        }
+        operationMetrics.increment(REJECTION_COUNTER, "operation", operation, "reason", "capacity");
+        results.put(request.getId(), BulkLeaveResultDto.failed(request.getId(), request.getStatus(),
+                "Cannot approve: maximum " + leaveOccupancyIndex.getMaxConcurrent() +
+                        " people can be on leave at the same time"));
+        return false;
+    }
+
+    private Map<String, LeaveBalance> loadBalances(List<LeaveRequest> requests) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Integer> years = new HashSet<>();
+        for (LeaveRequest request : requests) {
+            if (request.getLeaveType() == LeaveType.PAID) {
+                userIds.add(request.getUser().getId());
+                years.add(request.getStartDate().getYear());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, LeaveBalance> balances = new HashMap<>();
+        for (LeaveBalance balance : leaveBalanceRepository.findByUserIdInAndYearIn(userIds, years)) {
+            balances.put(balanceKey(balance.getUser().getId(), balance.getYear()), balance);
+        }
+        return balances;
+    }
+
+    private void applyDeductions(Map<LeaveBalance, Integer> deductions) {
+        List<Map.Entry<LeaveBalance, Integer>> charges = deductions.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .collect(Collectors.toList());
+        int[][] counts = jdbcTemplate.batchUpdate(DEDUCT_BALANCE_SQL, charges, BULK_BATCH_SIZE, (ps, charge) -> {
+            ps.setInt(1, charge.getValue());
+            ps.setInt(2, charge.getValue());
+            ps.setLong(3, charge.getKey().getUser().getId());
+            ps.setInt(4, charge.getKey().getYear());
+            ps.setInt(5, charge.getValue());
+        });
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    throw new RuntimeException("Leave balances changed while processing the batch, please retry");
+                }
+            }
+        }
+
+        if (charges.isEmpty()) {
+            return;
+        }
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.LEAVE_BALANCES);
+
+        List<Long> balanceIds = charges.stream().map(charge -> charge.getKey().getId()).collect(Collectors.toList());
+        evictBalances(balanceIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictBalances(balanceIds);
+                }
+            });
+        }
+    }
+
+    // The batch above bypasses Hibernate, so cached copies of the charged balances must be dropped by hand.
+    private void evictBalances(List<Long> balanceIds) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        for (Long balanceId : balanceIds) {
+            cache.evict(LeaveBalance.class, balanceId);
+        }
+    }
+
+    private static String balanceKey(Long userId, Integer year) {
+        return userId + ":" + year;
     }
 
 
     public LeaveRequest cancelRequest(Long requestId) {
+        return operationMetrics.time(WORKFLOW_TIMER, () -> doCancelRequest(requestId), "operation", "cancel");
+    }
+
+    private LeaveRequest doCancelRequest(Long requestId) {
         LeaveRequest request = leaveRequestRepository.findById(requestId)
                 .orElseThrow(() -> new RuntimeException("Leave request not found with id: " + requestId));
 
@@ -164,17 +486,17 @@ public class LeaveRequestService {
 
         if (request.getLeaveType() == LeaveType.PAID) {
             int year = request.getStartDate().getYear();
-            leaveBalanceService.returnDays(request.getUser().getId(), year, request.getWorkingDays());
+            operationMetrics.time(STAGE_TIMER,
+                    () -> leaveBalanceService.returnDays(request.getUser().getId(), year, request.getWorkingDays()),
+                    "operation", "cancel", "stage", "balance_update");
         }
 
         request.setStatus(LeaveStatus.CANCELLED);
-        return leaveRequestRepository.save(request);
-    }
-
-
-    private boolean canApproveRequest(LocalDate startDate, LocalDate endDate) {
-        List<LeaveRequest> overlapping = leaveRequestRepository.findApprovedOverlappingRequests(startDate, endDate);
-        return overlapping.size() < 2;
+        leaveOccupancyIndex.releaseAfterCommit(request.getId());
+        LeaveRequest savedRequest = operationMetrics.time(STAGE_TIMER, () -> leaveRequestRepository.save(request),
+                "operation", "cancel", "stage", "save");
+        eventPublisher.publishEvent(LeaveRequestChangedEvent.of(savedRequest));
+        return savedRequest;
     }
 
 
@@ -193,36 +515,90 @@ public class LeaveRequestService {
     }
 
 
+    @Transactional(readOnly = true)
     public List<LeaveRequestDto> getActiveLeaves() {
-        return leaveRequestRepository.findActiveLeaves(LocalDate.now()).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return leaveRequestRepository.findActiveLeaveDtos(LocalDate.now());
     }
 
 
+    @Transactional(readOnly = true)
     public List<LeaveRequestDto> getUpcomingLeaves() {
         LocalDate today = LocalDate.now();
         LocalDate nextWeek = today.plusDays(7);
-        return leaveRequestRepository.findUpcomingLeaves(today, nextWeek).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return leaveRequestRepository.findUpcomingLeaveDtos(today, nextWeek);
     }
 
 
-    private LeaveRequestDto convertToDto(LeaveRequest request) {
-        LeaveRequestDto dto = new LeaveRequestDto();
-        dto.setId(request.getId());
-        dto.setUserId(request.getUser().getId());
-        dto.setStartDate(request.getStartDate());
-        dto.setEndDate(request.getEndDate());
-        dto.setWorkingDays(request.getWorkingDays());
-        dto.setLeaveType(request.getLeaveType());
-        dto.setStatus(request.getStatus());
-        dto.setComment(request.getComment());
-        dto.setCreatedAt(request.getCreatedAt());
-        dto.setUserEmail(request.getUser().getEmail());
-        dto.setUserFullName(request.getUser().getFirstName() + " " + request.getUser().getLastName());
-        return dto;
+    /**
+     * Streams every request overlapping the year as NDJSON or CSV. Rows come from the
+     * {@code DTO_SELECT} projection, so nothing enters the persistence context and no clearing is
+     * needed; the writer is flushed every {@value #EXPORT_FLUSH_INTERVAL} rows.
+     */
+    @Transactional(readOnly = true)
+    public long exportByYear(Integer year, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long rows = 0;
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<LeaveRequestDto> requests = leaveRequestRepository.streamDtosByYear(year)) {
+            Iterator<LeaveRequestDto> iterator = requests.iterator();
+            while (iterator.hasNext()) {
+                LeaveRequestDto dto = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, dto);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+
+                if (++rows % EXPORT_FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+        logger.info("Exported {} leave requests for year {} as {}", rows, year, format);
+        return rows;
+    }
+
+    private void writeCsvRow(Writer writer, LeaveRequestDto dto) throws IOException {
+        writer.write(String.valueOf(dto.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getUserId()));
+        writer.write(',');
+        writer.write(csvValue(dto.getUserEmail()));
+        writer.write(',');
+        writer.write(csvValue(dto.getUserFullName()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getStartDate()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getEndDate()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getWorkingDays()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getLeaveType()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getStatus()));
+        writer.write(',');
+        writer.write(dto.getCreatedAt() != null ? dto.getCreatedAt().toString() : "");
+        writer.write(',');
+        writer.write(csvValue(dto.getComment()));
+        writer.write('\n');
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
 }
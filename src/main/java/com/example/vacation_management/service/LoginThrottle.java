@@ -0,0 +1,96 @@
+package com.example.vacation_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Token buckets in front of the password check, one per client IP and one per email. A bucket holds
+ * up to {@code burst} attempts and refills continuously at {@code per-minute}; idle buckets are
+ * dropped after {@code idle-timeout}.
+ */
+@Component
+public class LoginThrottle {
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @Value("${auth.login.ip-burst:50}")
+    private int ipBurst;
+
+    @Value("${auth.login.ip-per-minute:120}")
+    private int ipPerMinute;
+
+    @Value("${auth.login.email-burst:5}")
+    private int emailBurst;
+
+    @Value("${auth.login.email-per-minute:5}")
+    private int emailPerMinute;
+
+    @Value("${auth.login.max-tracked:100000}")
+    private long maxTracked;
+
+    @Value("${auth.login.idle-timeout:15m}")
+    private Duration idleTimeout;
+
+    private Cache<String, TokenBucket> ipBuckets;
+    private Cache<String, TokenBucket> emailBuckets;
+
+    @PostConstruct
+    public void init() {
+        ipBuckets = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(idleTimeout).build();
+        emailBuckets = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(idleTimeout).build();
+    }
+
+    public void acquire(String email, String clientIp) {
+        if (clientIp != null && !ipBuckets.get(clientIp, key -> new TokenBucket(ipBurst, ipPerMinute)).tryConsume()) {
+            reject("ip");
+        }
+        if (email != null) {
+            String key = email.trim().toLowerCase(Locale.ROOT);
+            if (!emailBuckets.get(key, k -> new TokenBucket(emailBurst, emailPerMinute)).tryConsume()) {
+                reject("email");
+            }
+        }
+    }
+
+    private void reject(String scope) {
+        operationMetrics.increment("auth.login.throttled", "scope", scope);
+        throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts, please try again later");
+    }
+
+    static final class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, int perMinute) {
+            this.capacity = capacity;
+            this.tokensPerNano = perMinute / (double) Duration.ofMinutes(1).toNanos();
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+}
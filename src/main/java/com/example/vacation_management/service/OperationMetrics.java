@@ -0,0 +1,64 @@
+package com.example.vacation_management.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+@Component
+public class OperationMetrics {
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public OperationMetrics() {}
+
+    public OperationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T time(String timerName, Supplier<T> action, String... tags) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_FAILURE;
+        try {
+            T result = action.get();
+            outcome = OUTCOME_SUCCESS;
+            return result;
+        } finally {
+            stop(sample, timerName, outcome, tags);
+        }
+    }
+
+    public void time(String timerName, Runnable action, String... tags) {
+        time(timerName, () -> {
+            action.run();
+            return null;
+        }, tags);
+    }
+
+    public void stop(Timer.Sample sample, String timerName, String outcome, String... tags) {
+        sample.stop(Timer.builder(timerName)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void increment(String counterName, String... tags) {
+        Counter.builder(counterName)
+                .tags(tags)
+                .register(meterRegistry)
+                .increment();
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.entity.OutboxEvent;
+import com.example.vacation_management.entity.OutboxStatus;
+import com.example.vacation_management.event.LeaveRequestChangedEvent;
+import com.example.vacation_management.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox on one background thread, in id order, handing each event to every
+ * {@link OutboxHandler} that supports it. A failed event is retried with exponential backoff and
+ * holds back later events of the same aggregate until it succeeds or is given up on, so handlers
+ * see each leave request's changes in the order they happened. Runs on a poll interval and is
+ * also woken right after a leave request change commits.
+ *
+ * <p>Assumes a single application instance drains the table.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private List<OutboxHandler> handlers;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @Value("${outbox.poll-interval:1s}")
+    private Duration pollInterval;
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${outbox.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    @Value("${outbox.retention:7d}")
+    private Duration retention;
+
+    private final AtomicBoolean wakeUpQueued = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+    private ScheduledExecutorService executor;
+    private Timer deliveryLag;
+    private long lastGaugeRefreshNanos;
+
+    @PostConstruct
+    public void init() {
+        deliveryLag = Timer.builder("outbox.delivery.lag")
+                .description("Time from the outbox insert to the last handler finishing")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events not yet delivered")
+                .register(meterRegistry);
+        Gauge.builder("outbox.oldest.age", oldestPendingMillis, age -> age.get() / 1000.0)
+                .description("Seconds the oldest undelivered outbox event has been waiting")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "outbox-dispatcher"));
+        executor.scheduleWithFixedDelay(this::drainSafely, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::purgeSafely, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLeaveRequestChanged(LeaveRequestChangedEvent event) {
+        wakeUp();
+    }
+
+    public void wakeUp() {
+        if (wakeUpQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                wakeUpQueued.set(false);
+                drainSafely();
+            });
+        }
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            logger.error("Outbox drain failed", e);
+        }
+    }
+
+    private void purgeSafely() {
+        try {
+            int purged = outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+            if (purged > 0) {
+                logger.info("Purged {} delivered outbox events older than {}", purged, retention);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Outbox purge failed", e);
+        }
+    }
+
+    /**
+     * Walks every pending event once, in id order. Only ever runs on the dispatcher thread.
+     */
+    void drain() {
+        Set<String> blocked = new HashSet<>();
+        long afterId = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findPendingAfter(afterId, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            dispatch(batch, blocked);
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == batchSize);
+        refreshLagGauges();
+    }
+
+    private void dispatch(List<OutboxEvent> batch, Set<String> blocked) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> delivered = new ArrayList<>();
+
+        for (OutboxEvent event : batch) {
+            String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blocked.contains(aggregate)) {
+                continue;
+            }
+            if (event.getNextAttemptAt() != null && event.getNextAttemptAt().isAfter(now)) {
+                blocked.add(aggregate);
+                continue;
+            }
+            try {
+                for (OutboxHandler handler : handlers) {
+                    if (handler.supports(event)) {
+                        handler.handle(event);
+                    }
+                }
+                delivered.add(event.getId());
+                deliveryLag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+                operationMetrics.increment("outbox.events", "type", event.getEventType(), "outcome", "delivered");
+            } catch (Exception e) {
+                if (!recordFailure(event, e)) {
+                    blocked.add(aggregate);
+                }
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            outboxEventRepository.markProcessed(delivered, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Schedules the next attempt, or gives the event up after {@code max-attempts}. Returns true
+     * when the event was given up on and no longer holds back its aggregate.
+     */
+    private boolean recordFailure(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        if (attempts >= maxAttempts) {
+            logger.error("Giving up on outbox event {} ({} {} of {} {}) after {} attempts",
+                    event.getId(), event.getEventType(), event.getAggregateType(), event.getAggregateId(), attempts, error);
+            outboxEventRepository.markFailedAttempt(event.getId(), OutboxStatus.FAILED, attempts, null, message);
+            operationMetrics.increment("outbox.events", "type", event.getEventType(), "outcome", "failed");
+            return true;
+        }
+
+        long backoffMillis = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 20));
+        logger.warn("Outbox event {} failed on attempt {}, retrying in {} ms: {}", event.getId(), attempts, backoffMillis, message);
+        outboxEventRepository.markFailedAttempt(event.getId(), OutboxStatus.PENDING, attempts,
+                LocalDateTime.now().plusNanos(backoffMillis * 1_000_000), message);
+        operationMetrics.increment("outbox.events", "type", event.getEventType(), "outcome", "retry");
+        return false;
+    }
+
+    /**
+     * Runs at most once per poll interval, so a burst of after-commit wake-ups does not turn into
+     * a burst of count queries. Only ever runs on the dispatcher thread.
+     */
+    private void refreshLagGauges() {
+        long now = System.nanoTime();
+        if (lastGaugeRefreshNanos != 0 && now - lastGaugeRefreshNanos < pollInterval.toNanos()) {
+            return;
+        }
+        lastGaugeRefreshNanos = now;
+        pending.set(outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+        LocalDateTime oldest = outboxEventRepository.findOldestPendingCreatedAt();
+        oldestPendingMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+}
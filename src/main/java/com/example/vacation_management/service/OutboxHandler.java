@@ -0,0 +1,16 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.entity.OutboxEvent;
+
+/**
+ * A side effect run by {@link OutboxDispatcher} after a state change has committed. Delivery is
+ * at least once: an event is retried until every handler that supports it succeeds, so handlers
+ * must tolerate seeing the same event again.
+ */
+public interface OutboxHandler {
+
+    boolean supports(OutboxEvent event);
+
+    void handle(OutboxEvent event) throws Exception;
+
+}
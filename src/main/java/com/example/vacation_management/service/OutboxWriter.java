@@ -0,0 +1,51 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.entity.OutboxEvent;
+import com.example.vacation_management.event.LeaveRequestChangedEvent;
+import com.example.vacation_management.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records each leave request change in the outbox table inside the transaction that made it, so
+ * the row exists if and only if the change commits.
+ */
+@Component
+public class OutboxWriter {
+
+    public static final String LEAVE_REQUEST = "LeaveRequest";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onLeaveRequestChanged(LeaveRequestChangedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("requestId", event.getRequestId());
+        payload.put("userId", event.getUserId());
+        payload.put("status", event.getStatus());
+        payload.put("startDate", event.getStartDate().toString());
+        payload.put("endDate", event.getEndDate().toString());
+
+        outboxEventRepository.save(new OutboxEvent(LEAVE_REQUEST, event.getRequestId(), event.getAction(), toJson(payload)));
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize outbox payload", e);
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.example.vacation_management.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt checks on a small dedicated pool with a bounded queue, so a login burst cannot take
+ * every CPU away from the rest of the API. When the queue is full callers get a 503 straight away.
+ */
+@Component
+public class PasswordVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordVerifier.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OperationMetrics operationMetrics;
+
+    @Value("${auth.password.threads:0}")
+    private int threads;
+
+    @Value("${auth.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${auth.password.timeout:5s}")
+    private Duration timeout;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "password-verify-" + counter.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.queue", executor, pool -> pool.getQueue().size())
+                .description("Password checks waiting for a verifier thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password checks currently running")
+                .register(meterRegistry);
+        logger.info("Password verifier started with {} threads and a queue of {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        Timer.Sample queued = operationMetrics.start();
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> {
+                operationMetrics.stop(queued, "auth.password.wait", OperationMetrics.OUTCOME_SUCCESS);
+                return operationMetrics.time("auth.password.verify",
+                        () -> passwordEncoder.matches(rawPassword, encodedPassword));
+            });
+        } catch (RejectedExecutionException e) {
+            operationMetrics.increment("auth.password.rejected", "reason", "queue_full");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Login is temporarily overloaded, please retry shortly");
+        }
+
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            operationMetrics.increment("auth.password.rejected", "reason", "timeout");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Login is temporarily overloaded, please retry shortly");
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Login was interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password verification failed", e.getCause());
+        }
+    }
+
+}
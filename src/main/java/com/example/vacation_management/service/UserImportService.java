@@ -0,0 +1,441 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.dto.UserDto;
+import com.example.vacation_management.entity.LeaveBalance;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Imports users in chunks on a background thread. Each chunk checks its emails with one query, hashes
+ * passwords on a bounded pool and inserts users and default balances in one batched transaction.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final String CSV_HEADER = "email,password,firstName,lastName,role";
+    private static final int MAX_RECORDED_ERRORS = 1000;
+    private static final int MAX_RETAINED_JOBS = 20;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${leave.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${leave.import.hash-threads:0}")
+    private int hashThreads;
+
+    @Value("${leave.balance.default-days:26}")
+    private int defaultDays;
+
+    private final Map<String, ImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private ExecutorService importExecutor;
+    private ExecutorService hashExecutor;
+
+    @PostConstruct
+    void init() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        importExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "user-import"));
+        hashExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        importExecutor.shutdownNow();
+        hashExecutor.shutdownNow();
+    }
+
+    public Map<String, Object> startImport(List<UserDto> rows) {
+        return startImport(rows, Map.of());
+    }
+
+    public Map<String, Object> startCsvImport(Reader reader) throws IOException {
+        Map<Integer, String> parseErrors = new HashMap<>();
+        List<UserDto> rows = parseCsv(reader, parseErrors);
+        return startImport(rows, parseErrors);
+    }
+
+    private Map<String, Object> startImport(List<UserDto> rows, Map<Integer, String> parseErrors) {
+        ImportJob job = new ImportJob(rows.size());
+        parseErrors.forEach((row, message) -> job.rowFailed(row, null, message));
+        retain(job);
+        importExecutor.submit(() -> runImport(job, rows));
+        logger.info("Queued user import {} with {} rows", job.id, rows.size());
+        return job.toMap();
+    }
+
+    /**
+     * Keeps at most {@value #MAX_RETAINED_JOBS} jobs, dropping finished ones oldest first. Jobs still
+     * queued or running are never dropped, so a new import is refused while that many are pending.
+     */
+    private void retain(ImportJob job) {
+        synchronized (jobs) {
+            Iterator<ImportJob> oldest = jobs.values().iterator();
+            while (jobs.size() >= MAX_RETAINED_JOBS && oldest.hasNext()) {
+                if (oldest.next().isFinished()) {
+                    oldest.remove();
+                }
+            }
+            if (jobs.size() >= MAX_RETAINED_JOBS) {
+                throw new RuntimeException("Too many imports in progress, please try again later");
+            }
+            jobs.put(job.id, job);
+        }
+    }
+
+    public Map<String, Object> getImportStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Import job not found: " + jobId);
+        }
+        return job.toMap();
+    }
+
+    /**
+     * Parses a CSV with the {@value #CSV_HEADER} header, using the RFC 4180 quoting that the leave
+     * request export writes. Records that cannot be parsed are added as {@code null} rows and
+     * described in {@code errors} under their 1-based row number.
+     */
+    public static List<UserDto> parseCsv(Reader reader, Map<Integer, String> errors) throws IOException {
+        PushbackReader in = new PushbackReader(new BufferedReader(reader));
+        List<String> header;
+        try {
+            header = readCsvRecord(in);
+        } catch (IllegalArgumentException e) {
+            header = null;
+        }
+        if (header == null || !CSV_HEADER.equalsIgnoreCase(String.join(",", header))) {
+            throw new RuntimeException("CSV header must be: " + CSV_HEADER);
+        }
+
+        List<UserDto> rows = new ArrayList<>();
+        while (true) {
+            List<String> values;
+            try {
+                values = readCsvRecord(in);
+            } catch (IllegalArgumentException e) {
+                errors.put(rows.size() + 1, e.getMessage());
+                rows.add(null);
+                continue;
+            }
+            if (values == null) {
+                break;
+            }
+            if (values.size() == 1 && values.get(0).isEmpty()) {
+                continue;
+            }
+            if (values.size() < 4 || values.size() > 5) {
+                errors.put(rows.size() + 1, "Expected 4 or 5 columns but found " + values.size());
+                rows.add(null);
+                continue;
+            }
+
+            UserDto row = new UserDto();
+            row.setEmail(csvColumn(values, 0));
+            row.setPassword(csvColumn(values, 1));
+            row.setFirstName(csvColumn(values, 2));
+            row.setLastName(csvColumn(values, 3));
+            String role = csvColumn(values, 4);
+            try {
+                row.setRole(role == null ? null : Role.valueOf(role.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                errors.put(rows.size() + 1, "Unknown role: " + role);
+                rows.add(null);
+                continue;
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Reads one record, or returns null at the end of input. Fields are separated by commas and end
+     * at LF or CRLF; a field wrapped in double quotes may contain commas, line breaks and doubled
+     * quotes and is kept verbatim, while unquoted fields are stripped. A malformed record throws
+     * {@link IllegalArgumentException} after its remaining line has been skipped.
+     */
+    static List<String> readCsvRecord(PushbackReader in) throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        in.unread(c);
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            c = in.read();
+            if (c == '"' && !quoted && value.toString().isBlank()) {
+                value.setLength(0);
+                quoted = true;
+                readQuotedField(in, value);
+            } else if (c == ',') {
+                fields.add(quoted ? value.toString() : value.toString().strip());
+                value.setLength(0);
+                quoted = false;
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                skipLineFeed(in, c);
+                fields.add(quoted ? value.toString() : value.toString().strip());
+                return fields;
+            } else if (quoted && !Character.isWhitespace(c)) {
+                skipRestOfLine(in);
+                throw new IllegalArgumentException("Unexpected character after closing quote");
+            } else if (!quoted) {
+                value.append((char) c);
+            }
+        }
+    }
+
+    private static void readQuotedField(PushbackReader in, StringBuilder value) throws IOException {
+        while (true) {
+            int c = in.read();
+            if (c == -1) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            if (c == '"') {
+                int next = in.read();
+                if (next != '"') {
+                    if (next != -1) {
+                        in.unread(next);
+                    }
+                    return;
+                }
+            }
+            value.append((char) c);
+        }
+    }
+
+    private static void skipLineFeed(PushbackReader in, int c) throws IOException {
+        if (c == '\r') {
+            int next = in.read();
+            if (next != '\n' && next != -1) {
+                in.unread(next);
+            }
+        }
+    }
+
+    private static void skipRestOfLine(PushbackReader in) throws IOException {
+        int c;
+        do {
+            c = in.read();
+        } while (c != '\n' && c != '\r' && c != -1);
+        skipLineFeed(in, c);
+    }
+
+    private static String csvColumn(List<String> values, int index) {
+        if (index >= values.size() || values.get(index).isBlank()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    void runImport(ImportJob job, List<UserDto> rows) {
+        job.status = "RUNNING";
+        long startedAt = System.nanoTime();
+        Set<String> seenEmails = new HashSet<>();
+        try {
+            for (int from = 0; from < rows.size(); from += chunkSize) {
+                importChunk(job, rows.subList(from, Math.min(from + chunkSize, rows.size())), from, seenEmails);
+            }
+            job.status = "COMPLETED";
+        } catch (RuntimeException e) {
+            logger.error("User import {} failed: {}", job.id, e.getMessage());
+            job.status = "FAILED";
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+        logger.info("User import {} finished in {} ms: {} created, {} failed", job.id,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), job.created.get(), job.failed.get());
+    }
+
+    private void importChunk(ImportJob job, List<UserDto> chunk, int offset, Set<String> seenEmails) {
+        Map<Integer, UserDto> valid = new LinkedHashMap<>();
+        Set<String> chunkEmails = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            UserDto row = chunk.get(i);
+            if (row == null) {
+                continue;
+            }
+            String violation = validate(row);
+            if (violation != null) {
+                job.rowFailed(offset + i + 1, row.getEmail(), violation);
+            } else if (!seenEmails.add(row.getEmail())) {
+                job.rowFailed(offset + i + 1, row.getEmail(), "Duplicate email in import");
+            } else {
+                valid.put(offset + i + 1, row);
+                chunkEmails.add(row.getEmail());
+            }
+        }
+
+        if (!chunkEmails.isEmpty()) {
+            Set<String> existing = userRepository.findExistingEmails(chunkEmails);
+            valid.entrySet().removeIf(entry -> {
+                if (existing.contains(entry.getValue().getEmail())) {
+                    job.rowFailed(entry.getKey(), entry.getValue().getEmail(),
+                            "User with email " + entry.getValue().getEmail() + " already exists");
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        Map<Integer, CompletableFuture<String>> hashes = new HashMap<>();
+        valid.forEach((row, dto) -> hashes.put(row,
+                CompletableFuture.supplyAsync(() -> passwordEncoder.encode(dto.getPassword()), hashExecutor)));
+
+        List<User> users = new ArrayList<>(valid.size());
+        valid.forEach((row, dto) -> users.add(new User(dto.getEmail(), hashes.get(row).join(),
+                dto.getFirstName(), dto.getLastName(), dto.getRole() != null ? dto.getRole() : Role.EMPLOYEE)));
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertUsers(users));
+            job.created.addAndGet(users.size());
+        } catch (RuntimeException e) {
+            logger.warn("User import {} chunk at row {} failed: {}", job.id, offset + 1, e.getMessage());
+            valid.forEach((row, dto) -> job.rowFailed(row, dto.getEmail(), "Insert failed: " + e.getMessage()));
+        }
+        job.processed.addAndGet(chunk.size());
+    }
+
+    private void insertUsers(List<User> users) {
+        int year = LocalDate.now().getYear();
+        for (User user : users) {
+            entityManager.persist(user);
+        }
+        for (User user : users) {
+            if (user.getRole() == Role.EMPLOYEE) {
+                entityManager.persist(new LeaveBalance(user, defaultDays, year));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.USERS);
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.LEAVE_BALANCES);
+    }
+
+    private String validate(UserDto row) {
+        Set<ConstraintViolation<UserDto>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    static class ImportJob {
+
+        private final String id = UUID.randomUUID().toString();
+        private final int total;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private volatile String status = "QUEUED";
+        private volatile LocalDateTime finishedAt;
+
+        ImportJob(int total) {
+            this.total = total;
+        }
+
+        boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        /**
+         * Counts every failure but keeps details for the first {@value #MAX_RECORDED_ERRORS} only.
+         */
+        void rowFailed(int row, String email, String message) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_RECORDED_ERRORS) {
+                    Map<String, Object> error = new HashMap<>();
+                    error.put("row", row);
+                    error.put("email", email);
+                    error.put("message", message);
+                    errors.add(error);
+                }
+            }
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("jobId", id);
+            result.put("status", status);
+            result.put("total", total);
+            result.put("processed", processed.get());
+            result.put("created", created.get());
+            result.put("failed", failed.get());
+            result.put("progress", total == 0 ? 100 : processed.get() * 100 / total);
+            result.put("startedAt", startedAt);
+            result.put("finishedAt", finishedAt);
+            synchronized (errors) {
+                result.put("errors", new ArrayList<>(errors));
+                result.put("errorsOmitted", failed.get() - errors.size());
+            }
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.example.vacation_management.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Database-backed profiles for {@code /api/auth/me?fresh=true}, keyed by user id. Entries are
+ * dropped whenever the user is updated or deleted, and once more after that transaction commits so
+ * a load racing the write cannot keep the old row cached.
+ */
+@Component
+public class UserProfileCache {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.profile-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${auth.profile-cache.ttl:5m}")
+    private Duration ttl;
+
+    private Cache<Long, Map<String, Object>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.profile");
+    }
+
+    public Map<String, Object> get(Long userId, Function<Long, Map<String, Object>> loader) {
+        return cache.get(userId, loader);
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+}
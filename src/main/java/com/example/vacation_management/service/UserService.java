@@ -1,17 +1,22 @@
 package com.example.vacation_management.service;
 
+import com.example.vacation_management.dto.CursorPageDto;
 import com.example.vacation_management.dto.UserDto;
 import com.example.vacation_management.entity.User;
 import com.example.vacation_management.entity.Role;
 import com.example.vacation_management.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
+@Transactional(readOnly = true)
 public class UserService {
 
     @Autowired
@@ -20,10 +25,26 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private LeaveCalendarCache leaveCalendarCache;
+
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    public CursorPageDto<User> getUsersPage(String cursor, Integer size) {
+        int pageSize = CursorPageDto.clampSize(size);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPageDto.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPageDto.of(rows, pageSize, User::getId, Function.identity());
+    }
+
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -36,6 +57,7 @@ public class UserService {
         return userRepository.existsByEmail(email);
     }
 
+    @Transactional
     public User createUser(UserDto userDto) {
         if (emailExists(userDto.getEmail())) {
             throw new RuntimeException("User with email " + userDto.getEmail() + " already exists");
@@ -48,9 +70,12 @@ public class UserService {
         user.setLastName(userDto.getLastName());
         user.setRole(userDto.getRole() != null ? userDto.getRole() : Role.EMPLOYEE);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.USERS);
+        return saved;
     }
 
+    @Transactional
     public User updateUser(Long id, UserDto userDto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
@@ -66,14 +91,22 @@ public class UserService {
             user.setRole(userDto.getRole());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userProfileCache.evict(id);
+        leaveCalendarCache.evictAllAfterCommit();
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.USERS);
+        return saved;
     }
 
+    @Transactional
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new RuntimeException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        userProfileCache.evict(id);
+        leaveCalendarCache.evictAllAfterCommit();
+        aggregateVersions.bumpAfterCommit(AggregateVersions.Aggregate.USERS);
     }
 
     public List<User> getUsersByRole(Role role) {
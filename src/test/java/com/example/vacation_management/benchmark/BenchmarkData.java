@@ -0,0 +1,63 @@
+package com.example.vacation_management.benchmark;
+
+import com.example.vacation_management.dto.LeaveRequestDto;
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.LeaveStatus;
+import com.example.vacation_management.entity.LeaveType;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.service.OperationMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    static OperationMetrics operationMetrics() {
+        return new OperationMetrics(new SimpleMeterRegistry());
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User("employee" + i + "@company.com", "$2a$10$abcdefghijklmnopqrstuv",
+                    "First" + i, "Last" + i, Role.EMPLOYEE);
+            user.setId((long) i + 1);
+            users.add(user);
+        }
+        return users;
+    }
+
+    static List<LeaveRequest> leaveRequests(List<User> users, int count, LocalDate from, int spreadDays) {
+        Random random = new Random(42);
+        List<LeaveRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate startDate = from.plusDays(random.nextInt(spreadDays));
+            LocalDate endDate = startDate.plusDays(random.nextInt(14));
+            LeaveRequest request = new LeaveRequest(users.get(random.nextInt(users.size())), startDate, endDate,
+                    random.nextInt(5) == 0 ? LeaveType.UNPAID : LeaveType.PAID);
+            request.setId((long) i + 1);
+            request.setStatus(LeaveStatus.values()[random.nextInt(LeaveStatus.values().length)]);
+            request.setComment(random.nextBoolean() ? "Family trip" : null);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    /**
+     * Builds the DTO the way the repository's {@code SELECT new} projection does, one constructor
+     * call per row.
+     */
+    static LeaveRequestDto project(LeaveRequest request) {
+        User user = request.getUser();
+        return new LeaveRequestDto(request.getId(), user.getId(), request.getStartDate(), request.getEndDate(),
+                request.getWorkingDays(), request.getLeaveType(), request.getStatus(), request.getComment(),
+                request.getCreatedAt(), user.getEmail(), user.getFirstName(), user.getLastName());
+    }
+
+}
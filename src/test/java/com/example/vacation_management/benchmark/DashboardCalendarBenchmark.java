@@ -0,0 +1,82 @@
+package com.example.vacation_management.benchmark;
+
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.repository.LeaveRequestRepository;
+import com.example.vacation_management.service.DashboardService;
+import com.example.vacation_management.service.LeaveCalendarCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardCalendarBenchmark {
+
+    @Param({"30", "300"})
+    private int monthLeaves;
+
+    private DashboardService dashboardService;
+
+    private LeaveCalendarCache leaveCalendarCache;
+
+    @Setup
+    public void setUp() {
+        List<LeaveRequest> leaves = BenchmarkData.leaveRequests(BenchmarkData.users(300), monthLeaves,
+                LocalDate.of(2025, 5, 20), 40);
+
+        LeaveRequestRepository leaveRequestRepository = Mockito.mock(LeaveRequestRepository.class);
+        Mockito.when(leaveRequestRepository.findApprovedOverlappingRequests(any(), any())).thenReturn(leaves);
+
+        leaveCalendarCache = new LeaveCalendarCache();
+        ReflectionTestUtils.setField(leaveCalendarCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(leaveCalendarCache, "maxSize", 240L);
+        ReflectionTestUtils.setField(leaveCalendarCache, "ttl", Duration.ofMinutes(10));
+        leaveCalendarCache.init();
+
+        dashboardService = new DashboardService();
+        ReflectionTestUtils.setField(dashboardService, "leaveCalendarCache", leaveCalendarCache);
+        ReflectionTestUtils.setField(dashboardService, "leaveRequestRepository", leaveRequestRepository);
+        ReflectionTestUtils.setField(dashboardService, "operationMetrics", BenchmarkData.operationMetrics());
+    }
+
+    @Benchmark
+    public Map<String, Object> leaveCalendar() {
+        leaveCalendarCache.invalidateAll();
+        return dashboardService.getLeaveCalendar(2025, 6);
+    }
+
+    @Benchmark
+    public Map<String, Object> compactLeaveCalendar() {
+        leaveCalendarCache.invalidateAll();
+        return dashboardService.getCompactLeaveCalendar(2025, 6);
+    }
+
+    @Benchmark
+    public Map<String, Object> cachedLeaveCalendar() {
+        return dashboardService.getLeaveCalendar(2025, 6);
+    }
+
+}
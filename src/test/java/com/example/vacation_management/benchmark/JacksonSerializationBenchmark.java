@@ -0,0 +1,56 @@
+package com.example.vacation_management.benchmark;
+
+import com.example.vacation_management.dto.LeaveRequestDto;
+import com.example.vacation_management.entity.LeaveRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<LeaveRequest> entities;
+    private List<LeaveRequestDto> dtos;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        entities = BenchmarkData.leaveRequests(BenchmarkData.users(500), rows, LocalDate.of(2025, 1, 1), 365);
+        dtos = entities.stream().map(BenchmarkData::project).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] serializeDtos() throws Exception {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.example.vacation_management.benchmark;
+
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.service.JwtClaimsCache;
+import com.example.vacation_management.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private JwtClaimsCache jwtClaimsCache;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtClaimsCache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(jwtClaimsCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtClaimsCache, "maxSize", 10_000L);
+        ReflectionTestUtils.setField(jwtClaimsCache, "ttl", Duration.ofMinutes(5));
+        jwtClaimsCache.init();
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret",
+                "mySecretKey123456789012345678901234567890123456789012345678901234567890");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtService, "jwtClaimsCache", jwtClaimsCache);
+        jwtService.init();
+
+        user = BenchmarkData.users(1).get(0);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        jwtClaimsCache.invalidateAll();
+        return jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return jwtService.verifyToken(token);
+    }
+
+}
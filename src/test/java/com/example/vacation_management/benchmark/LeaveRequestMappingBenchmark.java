@@ -0,0 +1,79 @@
+package com.example.vacation_management.benchmark;
+
+import com.example.vacation_management.VacationManagementApplication;
+import com.example.vacation_management.dto.LeaveRequestDto;
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.LeaveRequestRepository;
+import com.example.vacation_management.repository.UserRepository;
+import com.example.vacation_management.service.LeaveRequestService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the {@code SELECT new} projection behind {@link LeaveRequestService#getAllRequests()} end to
+ * end: the real service and repository query against an in-memory H2 database seeded with
+ * {@code rows} requests from 500 users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaveRequestMappingBenchmark {
+
+    @Param({"100", "10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+
+    private LeaveRequestService leaveRequestService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(VacationManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:mapping-benchmark;MODE=PostgreSQL;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN");
+
+        List<User> users = BenchmarkData.users(500);
+        List<LeaveRequest> requests = BenchmarkData.leaveRequests(users, rows, LocalDate.of(2025, 1, 1), 365);
+        users.forEach(user -> user.setId(null));
+        requests.forEach(request -> request.setId(null));
+        context.getBean(UserRepository.class).saveAll(users);
+        context.getBean(LeaveRequestRepository.class).saveAll(requests);
+
+        leaveRequestService = context.getBean(LeaveRequestService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<LeaveRequestDto> projectToDto() {
+        return leaveRequestService.getAllRequests();
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.example.vacation_management.benchmark;
+
+import com.example.vacation_management.entity.LeaveRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkingDaysBenchmark {
+
+    @Param({"1", "14", "365"})
+    private int rangeDays;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup
+    public void setUp() {
+        startDate = LocalDate.of(2025, 3, 5);
+        endDate = startDate.plusDays(rangeDays - 1);
+    }
+
+    @Benchmark
+    public int closedForm() {
+        return LeaveRequest.countWorkingDays(startDate, endDate);
+    }
+
+    @Benchmark
+    public int dayByDay() {
+        int workingDaysCount = 0;
+        LocalDate currentDate = startDate;
+        while (!currentDate.isAfter(endDate)) {
+            if (currentDate.getDayOfWeek().getValue() < 6) {
+                workingDaysCount++;
+            }
+            currentDate = currentDate.plusDays(1);
+        }
+        return workingDaysCount;
+    }
+
+}
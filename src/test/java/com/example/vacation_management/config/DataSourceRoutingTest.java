@@ -0,0 +1,217 @@
+package com.example.vacation_management.config;
+
+import com.example.vacation_management.controller.DashboardController;
+import com.example.vacation_management.dto.UserDto;
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.LeaveType;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.LeaveRequestRepository;
+import com.example.vacation_management.service.AggregateVersions;
+import com.example.vacation_management.service.DashboardService;
+import com.example.vacation_management.service.LeaveBalanceService;
+import com.example.vacation_management.service.LeaveCalendarCache;
+import com.example.vacation_management.service.LeaveOccupancyIndex;
+import com.example.vacation_management.service.LeaveRequestService;
+import com.example.vacation_management.service.OperationMetrics;
+import com.example.vacation_management.service.UserProfileCache;
+import com.example.vacation_management.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs against two separate H2 databases. The replica gets the primary's schema but no rows, so
+ * every read shows which database it was served from.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({DataSourceRoutingConfig.class, UserService.class, UserProfileCache.class, AggregateVersions.class,
+        DashboardService.class, LeaveCalendarCache.class, OperationMetrics.class, SimpleMeterRegistry.class,
+        DashboardController.class, LeaveRequestService.class, LeaveBalanceService.class, LeaveOccupancyIndex.class,
+        JacksonAutoConfiguration.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=PostgreSQL;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1",
+        "datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;MODE=PostgreSQL;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1",
+        "datasource.replica.username=sa"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DataSourceRoutingTest {
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardController dashboardController;
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private LeaveOccupancyIndex leaveOccupancyIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$encoded");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        primary.update("DELETE FROM leave_requests");
+        primary.update("DELETE FROM leave_balances");
+        primary.update("DELETE FROM users");
+        replica.execute("DROP ALL OBJECTS");
+        primary.queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(statement -> !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+    }
+
+    @Test
+    void writesGoToPrimaryAndReadOnlyTransactionsToReplica() {
+        User created = userService.createUser(userDto("routed@company.com"));
+
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM users", Long.class)).isEqualTo(1);
+        assertThat(userService.getUserByEmail("routed@company.com")).isEmpty();
+        assertThat(dashboardService.getTeamSummary()).containsEntry("totalEmployees", 0);
+
+        replica.update("INSERT INTO users (id, email, password_hash, first_name, last_name, role, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)", created.getId(), created.getEmail(), created.getPassword(),
+                created.getFirstName(), created.getLastName(), "EMPLOYEE", Timestamp.valueOf(LocalDateTime.now()));
+
+        assertThat(userService.getUserByEmail("routed@company.com")).isPresent();
+        assertThat(dashboardService.getTeamSummary()).containsEntry("totalEmployees", 1);
+    }
+
+    @Test
+    void readsBehindAnETagSeeACommittedApprovalWhileTheReplicaLags() {
+        User employee = userService.createUser(userDto("polled@company.com"));
+        LocalDate day = LocalDate.now().plusDays(30);
+        LeaveRequest request = leaveRequestRepository.save(new LeaveRequest(employee, day, day, LeaveType.UNPAID));
+        leaveOccupancyIndex.rebuildFromDatabase();
+
+        ResponseEntity<Map<String, Object>> before = pollStats(null);
+        assertThat(before.getBody()).containsEntry("pendingRequests", 1L).containsEntry("approvedRequests", 0L);
+        assertThat(pollStats(before.getHeaders().getETag()).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(leaveRequestService.getPendingRequests()).hasSize(1);
+
+        leaveRequestService.approveRequest(request.getId());
+
+        ResponseEntity<Map<String, Object>> after = pollStats(before.getHeaders().getETag());
+        assertThat(after.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(after.getHeaders().getETag()).isNotEqualTo(before.getHeaders().getETag());
+        assertThat(after.getBody()).containsEntry("pendingRequests", 0L).containsEntry("approvedRequests", 1L);
+        assertThat(pollStats(after.getHeaders().getETag()).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(leaveRequestService.getPendingRequests()).isEmpty();
+        assertThat(leaveRequestService.getPendingRequestsPage(null, 10).getItems()).isEmpty();
+
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM leave_requests", Long.class)).isZero();
+    }
+
+    @Test
+    void readsInsideWriteTransactionsStayOnPrimary() {
+        User created = userService.createUser(userDto("primary-only@company.com"));
+
+        UserDto update = userDto("primary-only@company.com");
+        update.setFirstName("Renamed");
+        userService.updateUser(created.getId(), update);
+
+        assertThat(primary.queryForObject("SELECT first_name FROM users WHERE id = ?", String.class, created.getId()))
+                .isEqualTo("Renamed");
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM users", Long.class)).isZero();
+    }
+
+    @Test
+    void writeAfterAReadOnlyTransactionInOneOpenInViewRequestGoesToPrimary() {
+        User employee = userService.createUser(userDto("viewer@company.com"));
+        LocalDate day = LocalDate.now().plusDays(30);
+        LeaveRequest request = leaveRequestRepository.save(new LeaveRequest(employee, day, day, LeaveType.UNPAID));
+
+        // Binds the request-scoped EntityManager the way OpenEntityManagerInViewInterceptor does.
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            assertThat(leaveRequestService.getRequestById(request.getId())).isEmpty();
+            userService.createUser(userDto("after-read@company.com"));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM users WHERE email = 'after-read@company.com'", Long.class))
+                .isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM users", Long.class)).isZero();
+    }
+
+    private ResponseEntity<Map<String, Object>> pollStats(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/stats");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return dashboardController.getDashboardStats(new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+
+    private static UserDto userDto(String email) {
+        UserDto dto = new UserDto();
+        dto.setEmail(email);
+        dto.setPassword("secret123");
+        dto.setFirstName("Ola");
+        dto.setLastName("Kowalska");
+        dto.setRole(Role.EMPLOYEE);
+        return dto;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.vacation_management.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "jwt.secret=endpointTestSecretKey1234567890123456789012345678901234567890123456")
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+class ActuatorSecurityTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void healthIsPublic() throws Exception {
+        assertThat(send(HttpRequest.newBuilder(uri("/actuator/health"))).statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void metricsNeedAnAdmin() throws Exception {
+        for (String path : new String[]{"/actuator/prometheus", "/actuator/metrics"}) {
+            assertThat(send(HttpRequest.newBuilder(uri(path))).statusCode()).as(path).isIn(401, 403);
+        }
+
+        HttpResponse<String> scrape = send(HttpRequest.newBuilder(uri("/actuator/prometheus"))
+                .header("Authorization", "Bearer " + adminToken()));
+        assertThat(scrape.statusCode()).isEqualTo(200);
+        assertThat(scrape.body()).contains("jvm_");
+    }
+
+    private String adminToken() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"admin@company.com\",\"password\":\"admin123\"}")));
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.example.vacation_management.controller;
+
+import com.example.vacation_management.entity.LeaveBalance;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.LeaveBalanceRepository;
+import com.example.vacation_management.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"jwt.secret=endpointTestSecretKey1234567890123456789012345678901234567890123456",
+                "auth.login.email-burst=100"})
+@ActiveProfiles("test")
+class CursorPagingEndpointTest {
+
+    private static final int YEAR = 2041;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        if (leaveBalanceRepository.findAll().stream().noneMatch(balance -> balance.getYear() == YEAR)) {
+            for (int i = 0; i < 5; i++) {
+                User user = userRepository.save(new User("paging" + i + "@company.com", "secret123",
+                        "Paging", "User" + i, Role.EMPLOYEE));
+                leaveBalanceRepository.save(new LeaveBalance(user, 26, YEAR));
+            }
+        }
+        HttpResponse<String> login = send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"admin@company.com\",\"password\":\"admin123\"}")));
+        token = objectMapper.readTree(login.body()).get("token").asText();
+    }
+
+    @Test
+    void walkingUserPagesMatchesTheUnpagedList() throws Exception {
+        assertThat(walk("/api/users?size=2")).containsExactlyElementsOf(ids(get("/api/users?unpaged=true")));
+    }
+
+    @Test
+    void walkingBalancePagesMatchesTheUnpagedList() throws Exception {
+        List<Long> paged = walk("/api/leave-balances/year/" + YEAR + "?size=2");
+        assertThat(paged).hasSize(5).containsExactlyElementsOf(ids(get("/api/leave-balances/year/" + YEAR + "?unpaged=true")));
+    }
+
+    @Test
+    void unpagedLeaveRequestsStillReturnAPlainList() throws Exception {
+        assertThat(get("/api/leave-requests?unpaged=true").isArray()).isTrue();
+        assertThat(get("/api/leave-requests").get("items").isArray()).isTrue();
+    }
+
+    @Test
+    void sizeIsClampedOnTheEndpoint() throws Exception {
+        JsonNode page = get("/api/users?size=0");
+        assertThat(page.get("items")).hasSize(1);
+        assertThat(page.get("hasMore").asBoolean()).isTrue();
+
+        assertThat(get("/api/users?size=100000").get("items").size()).isBetween(6, 500);
+    }
+
+    @Test
+    void malformedOrTamperedCursorIsABadRequest() throws Exception {
+        List<String> cursors = List.of("not base64!", encode("offset:10"), encode("id:-1"), encode("id:1x"));
+        for (String path : List.of("/api/users", "/api/leave-requests", "/api/leave-balances/year/" + YEAR)) {
+            for (String cursor : cursors) {
+                HttpResponse<String> response = send(authorized(path + "?cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8)));
+                assertThat(response.statusCode()).as("%s with cursor %s", path, cursor).isEqualTo(400);
+                assertThat(objectMapper.readTree(response.body()).get("message").asText()).isEqualTo("Invalid cursor: " + cursor);
+            }
+        }
+    }
+
+    private List<Long> walk(String firstPage) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String path = firstPage;
+        for (int pages = 0; pages < 100; pages++) {
+            JsonNode page = get(path);
+            ids.addAll(ids(page.get("items")));
+            if (page.get("nextCursor").isNull()) {
+                assertThat(page.get("hasMore").asBoolean()).isFalse();
+                return ids;
+            }
+            assertThat(page.get("items")).hasSize(2);
+            path = firstPage + "&cursor=" + page.get("nextCursor").asText();
+        }
+        throw new AssertionError("Paging did not terminate");
+    }
+
+    private static List<Long> ids(JsonNode items) {
+        List<Long> ids = new ArrayList<>();
+        items.forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+
+    private JsonNode get(String path) throws Exception {
+        HttpResponse<String> response = send(authorized(path));
+        assertThat(response.statusCode()).as(path).isEqualTo(200);
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
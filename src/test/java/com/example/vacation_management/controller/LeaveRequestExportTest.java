@@ -0,0 +1,119 @@
+package com.example.vacation_management.controller;
+
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.LeaveType;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.LeaveRequestRepository;
+import com.example.vacation_management.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the real server because the export body is written after the controller returns,
+ * on an async dispatch that has to get through the security filter chain.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"jwt.secret=endpointTestSecretKey1234567890123456789012345678901234567890123456",
+                "auth.login.email-burst=100"})
+@ActiveProfiles("test")
+class LeaveRequestExportTest {
+
+    private static final LocalDate DAY = LocalDate.of(2042, 3, 4);
+    private static final String EMPLOYEE_EMAIL = "exporter@company.com";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private LeaveRequest request;
+
+    @BeforeEach
+    void setUp() {
+        User employee = userRepository.findByEmail(EMPLOYEE_EMAIL).orElseGet(() -> userRepository.save(
+                new User(EMPLOYEE_EMAIL, passwordEncoder.encode("secret123"), "Eva", "Export", Role.EMPLOYEE)));
+        request = leaveRequestRepository.findByUserId(employee.getId()).stream().findFirst()
+                .orElseGet(() -> leaveRequestRepository.save(new LeaveRequest(employee, DAY, DAY, LeaveType.UNPAID)));
+    }
+
+    @Test
+    void adminReceivesTheStreamedCsvThroughTheAsyncDispatch() throws Exception {
+        HttpResponse<String> response = export(login("admin@company.com", "admin123"), "csv");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("text/csv"));
+        assertThat(response.headers().firstValue("Content-Disposition"))
+                .hasValue("attachment; filename=\"leave-requests-" + DAY.getYear() + ".csv\"");
+        assertThat(response.body()).startsWith("id,userId,").contains(request.getId() + "," + request.getUser().getId() + "," + EMPLOYEE_EMAIL);
+    }
+
+    @Test
+    void adminReceivesNdjsonByDefault() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/leave-requests/export?year=" + DAY.getYear()))
+                .header("Authorization", "Bearer " + login("admin@company.com", "admin123")));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("application/x-ndjson"));
+        assertThat(objectMapper.readTree(response.body().lines().findFirst().orElseThrow()).get("id").asLong())
+                .isEqualTo(request.getId());
+    }
+
+    @Test
+    void employeesCannotExport() throws Exception {
+        assertThat(export(login(EMPLOYEE_EMAIL, "secret123"), "csv").statusCode()).isEqualTo(403);
+    }
+
+    @Test
+    void unsupportedFormatIsABadRequest() throws Exception {
+        assertThat(export(login("admin@company.com", "admin123"), "xml").statusCode()).isEqualTo(400);
+    }
+
+    private HttpResponse<String> export(String token, String format) throws Exception {
+        return send(HttpRequest.newBuilder(uri("/api/leave-requests/export?year=" + DAY.getYear() + "&format=" + format))
+                .header("Authorization", "Bearer " + token));
+    }
+
+    private String login(String email, String password) throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}")));
+        assertThat(response.statusCode()).as("login as %s", email).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.example.vacation_management.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test client connects from loopback, which Tomcat treats as an internal proxy, so it stands in
+ * for a load balancer forwarding logins from several clients.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"jwt.secret=endpointTestSecretKey1234567890123456789012345678901234567890123456",
+                "auth.login.ip-burst=3", "auth.login.ip-per-minute=1"})
+@ActiveProfiles("test")
+class LoginThrottleEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void clientsBehindTheSameProxyGetSeparateIpBuckets() throws Exception {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            assertThat(login("203.0.113.10", "spray" + attempt + "@company.com")).isNotEqualTo(429);
+        }
+        assertThat(login("203.0.113.10", "spray3@company.com")).isEqualTo(429);
+
+        assertThat(login("203.0.113.20", "other@company.com")).isNotEqualTo(429);
+        assertThat(login("198.51.100.7, 203.0.113.30", "chained@company.com")).isNotEqualTo(429);
+    }
+
+    private int login(String forwardedFor, String email) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"wrong-password\"}"))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString()).statusCode();
+    }
+
+}
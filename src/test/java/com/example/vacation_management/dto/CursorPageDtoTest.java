@@ -0,0 +1,58 @@
+package com.example.vacation_management.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPageDtoTest {
+
+    @Test
+    void cursorRoundTrips() {
+        assertThat(CursorPageDto.decodeCursor(CursorPageDto.encodeCursor(0L))).isZero();
+        assertThat(CursorPageDto.decodeCursor(CursorPageDto.encodeCursor(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+        assertThat(CursorPageDto.decodeCursor(null)).isZero();
+        assertThat(CursorPageDto.decodeCursor(" ")).isZero();
+    }
+
+    @Test
+    void malformedOrTamperedCursorsAreRejected() {
+        for (String cursor : List.of("not base64!", encode("id:abc"), encode("offset:10"), encode("id:-5"), encode("id:"))) {
+            assertThatThrownBy(() -> CursorPageDto.decodeCursor(cursor))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("Invalid cursor: " + cursor);
+        }
+    }
+
+    @Test
+    void sizeIsClampedToOneThroughMax() {
+        assertThat(CursorPageDto.clampSize(null)).isEqualTo(CursorPageDto.DEFAULT_SIZE);
+        assertThat(CursorPageDto.clampSize(0)).isEqualTo(1);
+        assertThat(CursorPageDto.clampSize(-10)).isEqualTo(1);
+        assertThat(CursorPageDto.clampSize(20)).isEqualTo(20);
+        assertThat(CursorPageDto.clampSize(10_000)).isEqualTo(CursorPageDto.MAX_SIZE);
+    }
+
+    @Test
+    void extraRowProducesCursorAndLastPageHasNone() {
+        CursorPageDto<Long> first = CursorPageDto.of(List.of(1L, 2L, 3L), 2, Function.identity(), Function.identity());
+        assertThat(first.getItems()).containsExactly(1L, 2L);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(CursorPageDto.decodeCursor(first.getNextCursor())).isEqualTo(2L);
+
+        CursorPageDto<Long> last = CursorPageDto.of(List.of(3L), 2, Function.identity(), Function.identity());
+        assertThat(last.getItems()).containsExactly(3L);
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
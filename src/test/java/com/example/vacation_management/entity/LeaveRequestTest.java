@@ -0,0 +1,59 @@
+package com.example.vacation_management.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaveRequestTest {
+
+    @Test
+    void countWorkingDaysMatchesDayByDayCountForRandomRanges() {
+        Random random = new Random(20240101L);
+        LocalDate epochStart = LocalDate.of(1960, 1, 1);
+
+        for (int i = 0; i < 20_000; i++) {
+            LocalDate start = epochStart.plusDays(random.nextInt(50_000));
+            LocalDate end = start.plusDays(random.nextInt(800) - 10);
+
+            assertThat(LeaveRequest.countWorkingDays(start, end))
+                    .as("working days from %s to %s", start, end)
+                    .isEqualTo(countWorkingDaysByIteration(start, end));
+        }
+    }
+
+    @Test
+    void countWorkingDaysForKnownRanges() {
+        LocalDate monday = LocalDate.of(2025, 6, 2);
+
+        assertThat(LeaveRequest.countWorkingDays(monday, monday)).isEqualTo(1);
+        assertThat(LeaveRequest.countWorkingDays(monday.plusDays(5), monday.plusDays(6))).isZero();
+        assertThat(LeaveRequest.countWorkingDays(monday, monday.plusDays(13))).isEqualTo(10);
+        assertThat(LeaveRequest.countWorkingDays(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))).isEqualTo(261);
+        assertThat(LeaveRequest.countWorkingDays(monday.plusDays(1), monday)).isZero();
+    }
+
+    @Test
+    void settersRecalculateWorkingDays() {
+        LeaveRequest request = new LeaveRequest();
+        request.setStartDate(LocalDate.of(2025, 6, 2));
+        request.setEndDate(LocalDate.of(2025, 6, 8));
+
+        assertThat(request.getWorkingDays()).isEqualTo(5);
+    }
+
+    private static int countWorkingDaysByIteration(LocalDate startDate, LocalDate endDate) {
+        int workingDaysCount = 0;
+        LocalDate currentDate = startDate;
+        while (!currentDate.isAfter(endDate)) {
+            if (currentDate.getDayOfWeek().getValue() < 6) {
+                workingDaysCount++;
+            }
+            currentDate = currentDate.plusDays(1);
+        }
+        return workingDaysCount;
+    }
+
+}
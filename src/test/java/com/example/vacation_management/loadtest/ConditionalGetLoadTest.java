@@ -0,0 +1,155 @@
+package com.example.vacation_management.loadtest;
+
+import com.example.vacation_management.VacationManagementApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Simulates dashboard clients polling the conditional GET endpoints with {@code If-None-Match}
+ * while a writer occasionally files a leave request, and reports how many polls were answered with
+ * 304. Disabled by default; run with {@code mvn test -Dtest=ConditionalGetLoadTest -Dloadtest=true}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ConditionalGetLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalGetLoadTest.class);
+
+    private static final int POLLERS = Integer.getInteger("loadtest.pollers", 50);
+    private static final int POLLS_PER_CLIENT = Integer.getInteger("loadtest.polls", 400);
+    private static final int WRITES = Integer.getInteger("loadtest.writes", 40);
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern USER_ID = Pattern.compile("\"userId\"\\s*:\\s*(\\d+)");
+
+    private static final String[] ENDPOINTS = {
+            "/api/dashboard/stats",
+            "/api/dashboard/calendar/" + LocalDate.now().plusYears(1).getYear() + "/1",
+            "/api/leave-requests/pending",
+            "/api/leave-balances/my"
+    };
+
+    @Test
+    void pollersMostlyRevalidateWith304() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(VacationManagementApplication.class)
+                .run("--spring.profiles.active=test",
+                        "--server.port=0",
+                        "--jwt.secret=loadTestSecretKey12345678901234567890123456789012345678901234567890",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest-etag;MODE=PostgreSQL;NON_KEYWORDS=YEAR",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.springframework.web=INFO",
+                        "--logging.level.org.hibernate.SQL=INFO");
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().executor(clients).version(HttpClient.Version.HTTP_1_1).build();
+            String loginBody = login(http, baseUrl);
+            String token = group(TOKEN, loginBody);
+            long userId = Long.parseLong(group(USER_ID, loginBody));
+
+            AtomicInteger ok = new AtomicInteger();
+            AtomicInteger notModified = new AtomicInteger();
+            AtomicInteger errors = new AtomicInteger();
+            List<Future<?>> running = new ArrayList<>();
+            for (int client = 0; client < POLLERS; client++) {
+                running.add(clients.submit(() -> poll(http, baseUrl, token, ok, notModified, errors)));
+            }
+            running.add(clients.submit(() -> write(http, baseUrl, token, userId, errors)));
+
+            long started = System.nanoTime();
+            for (Future<?> future : running) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            int total = ok.get() + notModified.get();
+            logger.info(String.format("%d polls in %.1f s: %d x 200, %d x 304 (%.1f%% not modified), %d errors, %d writes",
+                    total, seconds, ok.get(), notModified.get(), 100.0 * notModified.get() / total, errors.get(), WRITES));
+            assertThat(errors.get()).isZero();
+            assertThat(notModified.get()).isGreaterThan(ok.get());
+            assertThat(ok.get()).as("writes invalidate the tags").isGreaterThan(POLLERS * ENDPOINTS.length);
+        }
+    }
+
+    private static void poll(HttpClient http, String baseUrl, String token,
+                             AtomicInteger ok, AtomicInteger notModified, AtomicInteger errors) {
+        String[] etags = new String[ENDPOINTS.length];
+        for (int i = 0; i < POLLS_PER_CLIENT; i++) {
+            int endpoint = i % ENDPOINTS.length;
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + ENDPOINTS[endpoint]))
+                    .header("Authorization", "Bearer " + token);
+            if (etags[endpoint] != null) {
+                request.header("If-None-Match", etags[endpoint]);
+            }
+            try {
+                HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    ok.incrementAndGet();
+                    etags[endpoint] = response.headers().firstValue("ETag").orElse(null);
+                } else if (response.statusCode() == 304) {
+                    notModified.incrementAndGet();
+                } else {
+                    errors.incrementAndGet();
+                }
+                Thread.sleep(5);
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private static void write(HttpClient http, String baseUrl, String token, long userId, AtomicInteger errors) {
+        LocalDate firstDay = LocalDate.now().plusYears(1).withDayOfYear(1);
+        for (int i = 0; i < WRITES; i++) {
+            LocalDate day = firstDay.plusDays(i);
+            String body = String.format("{\"userId\":%d,\"startDate\":\"%s\",\"endDate\":\"%s\",\"leaveType\":\"UNPAID\"}",
+                    userId, day, day);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/leave-requests"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 201) {
+                    errors.incrementAndGet();
+                }
+                Thread.sleep(100);
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private static String login(HttpClient http, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"admin@company.com\",\"password\":\"admin123\"}"))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static String group(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        assertThat(matcher.find()).as("login response contains %s", pattern).isTrue();
+        return matcher.group(1);
+    }
+
+}
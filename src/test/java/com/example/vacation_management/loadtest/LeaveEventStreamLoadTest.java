@@ -0,0 +1,178 @@
+package com.example.vacation_management.loadtest;
+
+import com.example.vacation_management.VacationManagementApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Opens thousands of admin event streams against one application instance, files leave requests
+ * and measures how long each event takes to reach every subscriber, how many platform threads the
+ * open streams cost, and whether a reconnect with {@code Last-Event-ID} replays exactly the missed
+ * events. Disabled by default; run with
+ * {@code mvn test -Dtest=LeaveEventStreamLoadTest -Dloadtest=true [-Dloadtest.subscribers=2000]}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LeaveEventStreamLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveEventStreamLoadTest.class);
+
+    private static final int SUBSCRIBERS = Integer.getInteger("loadtest.subscribers", 2_000);
+    private static final int WRITES = Integer.getInteger("loadtest.writes", 20);
+    private static final int RESUME_AFTER = WRITES / 2;
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern USER_ID = Pattern.compile("\"userId\"\\s*:\\s*(\\d+)");
+
+    @Test
+    void fansOutToThousandsOfStreamsWithoutThreadPerConnection() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(VacationManagementApplication.class)
+                .run("--spring.profiles.active=test",
+                        "--server.port=0",
+                        "--jwt.secret=loadTestSecretKey12345678901234567890123456789012345678901234567890",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest-sse;MODE=PostgreSQL;NON_KEYWORDS=YEAR",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.springframework.web=INFO",
+                        "--logging.level.org.hibernate.SQL=INFO");
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().executor(clients).version(HttpClient.Version.HTTP_1_1).build();
+            String loginBody = login(http, baseUrl);
+            String token = group(TOKEN, loginBody);
+            long userId = Long.parseLong(group(USER_ID, loginBody));
+
+            int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+            AtomicIntegerArray delivered = new AtomicIntegerArray(WRITES);
+            List<String> eventIds = new CopyOnWriteArrayList<>();
+            CountDownLatch connected = new CountDownLatch(SUBSCRIBERS);
+            AtomicInteger errors = new AtomicInteger();
+            for (int i = 0; i < SUBSCRIBERS; i++) {
+                boolean recordIds = i == 0;
+                clients.execute(() -> subscribe(http, baseUrl, token, null, connected, errors, (index, id) -> {
+                    if (index < WRITES) {
+                        delivered.incrementAndGet(index);
+                    }
+                    if (recordIds) {
+                        eventIds.add(id);
+                    }
+                }));
+            }
+            assertThat(connected.await(60, TimeUnit.SECONDS)).as("all streams connected").isTrue();
+            int threadsConnected = ManagementFactory.getThreadMXBean().getThreadCount();
+
+            double[] fanOutMillis = new double[WRITES];
+            LocalDate firstDay = LocalDate.now().plusYears(1).withDayOfYear(1);
+            for (int i = 0; i < WRITES; i++) {
+                long started = System.nanoTime();
+                assertThat(createRequest(http, baseUrl, token, userId, firstDay.plusDays(i))).isEqualTo(201);
+                while (delivered.get(i) < SUBSCRIBERS && System.nanoTime() - started < TimeUnit.SECONDS.toNanos(30)) {
+                    Thread.sleep(1);
+                }
+                fanOutMillis[i] = (System.nanoTime() - started) / 1e6;
+                assertThat(delivered.get(i)).as("event %d reached every stream", i).isEqualTo(SUBSCRIBERS);
+            }
+
+            List<String> replayed = new CopyOnWriteArrayList<>();
+            CountDownLatch resumed = new CountDownLatch(1);
+            clients.execute(() -> subscribe(http, baseUrl, token, eventIds.get(RESUME_AFTER - 1), resumed, errors,
+                    (index, id) -> replayed.add(id)));
+            assertThat(resumed.await(10, TimeUnit.SECONDS)).isTrue();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (replayed.size() < WRITES - RESUME_AFTER && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Arrays.sort(fanOutMillis);
+            logger.info(String.format("%d streams: platform threads %d -> %d, fan-out to all streams p50 %.1f ms, max %.1f ms, " +
+                            "%d events replayed after Last-Event-ID, %d errors",
+                    SUBSCRIBERS, threadsBefore, threadsConnected, fanOutMillis[WRITES / 2], fanOutMillis[WRITES - 1],
+                    replayed.size(), errors.get()));
+            assertThat(replayed).isEqualTo(eventIds.subList(RESUME_AFTER, WRITES));
+            // bounded by Tomcat's 200 request workers, whatever the number of open streams
+            assertThat(threadsConnected - threadsBefore).isLessThan(250);
+            assertThat(errors.get()).isZero();
+        }
+    }
+
+    private static void subscribe(HttpClient http, String baseUrl, String token, String lastEventId,
+                                  CountDownLatch connected, AtomicInteger errors, EventListener listener) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/leave-requests/events"))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        try {
+            HttpResponse<Stream<String>> response = http.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+            if (response.statusCode() != 200) {
+                errors.incrementAndGet();
+                return;
+            }
+            connected.countDown();
+            int index = 0;
+            for (String line : (Iterable<String>) response.body()::iterator) {
+                if (line.startsWith("id:")) {
+                    listener.onEvent(index++, line.substring(3));
+                }
+            }
+        } catch (Exception e) {
+            // the stream closes when the application shuts down
+        }
+    }
+
+    private static int createRequest(HttpClient http, String baseUrl, String token, long userId, LocalDate day)
+            throws Exception {
+        String body = String.format("{\"userId\":%d,\"startDate\":\"%s\",\"endDate\":\"%s\",\"leaveType\":\"UNPAID\"}",
+                userId, day, day);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/leave-requests"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String login(HttpClient http, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"admin@company.com\",\"password\":\"admin123\"}"))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static String group(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        assertThat(matcher.find()).as("login response contains %s", pattern).isTrue();
+        return matcher.group(1);
+    }
+
+    @FunctionalInterface
+    private interface EventListener {
+        void onEvent(int index, String id);
+    }
+
+}
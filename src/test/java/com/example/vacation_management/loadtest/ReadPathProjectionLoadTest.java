@@ -0,0 +1,215 @@
+package com.example.vacation_management.loadtest;
+
+import com.example.vacation_management.dto.LeaveRequestDto;
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.LeaveStatus;
+import com.example.vacation_management.repository.LeaveRequestRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the former entity read path (EAGER user, mapped to DTOs in Java) with the constructor
+ * projections on a large table: statements executed, columns read per result row (summed over the
+ * distinct statements, so N+1 user loads count too), whether password hashes were read, and bytes
+ * allocated by the calling thread. Disabled by default; run with
+ * {@code mvn test -Dtest=ReadPathProjectionLoadTest -Dloadtest=true [-Dloadtest.rows=1000000]}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.vacation_management.loadtest.ReadPathProjectionLoadTest$RecordingInspector")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ReadPathProjectionLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadPathProjectionLoadTest.class);
+
+    private static final int ROWS = Integer.getInteger("loadtest.rows", 1_000_000);
+    private static final int USERS = 5_000;
+    private static final int PAGE_SIZE = 500;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        seed();
+    }
+
+    @Test
+    void projectionsReadNarrowerRowsWithFewerStatements() {
+        Long userId = 42L;
+        List<Measurement> results = new ArrayList<>();
+
+        results.add(measure("page/entity", () -> entityManager.createQuery(
+                        "SELECT lr FROM LeaveRequest lr JOIN FETCH lr.user WHERE lr.id > :id ORDER BY lr.id", LeaveRequest.class)
+                .setParameter("id", 0L).setMaxResults(PAGE_SIZE + 1).getResultList()
+                .stream().map(ReadPathProjectionLoadTest::toDto).collect(Collectors.toList())));
+        results.add(measure("page/projection", () -> leaveRequestRepository.findDtosByIdGreaterThan(0L, Limit.of(PAGE_SIZE + 1))));
+
+        results.add(measure("user-year/entity", () -> leaveRequestRepository.findByUserIdAndYear(userId, 2024)
+                .stream().map(ReadPathProjectionLoadTest::toDto).collect(Collectors.toList())));
+        results.add(measure("user-year/projection", () -> leaveRequestRepository.findDtosByUserIdAndYear(userId, 2024)));
+
+        results.add(measure("pending/entity", () -> entityManager.createQuery(
+                        "SELECT lr FROM LeaveRequest lr WHERE lr.status = 'PENDING' ORDER BY lr.createdAt ASC", LeaveRequest.class)
+                .getResultList().stream().map(ReadPathProjectionLoadTest::toDto).collect(Collectors.toList())));
+        results.add(measure("pending/projection", () -> leaveRequestRepository.findPendingDtos()));
+
+        results.forEach(result -> logger.info("{}", result));
+        for (int i = 0; i < results.size(); i += 2) {
+            Measurement entity = results.get(i);
+            Measurement projection = results.get(i + 1);
+            assertThat(projection.rows).isEqualTo(entity.rows);
+            assertThat(projection.statements).isEqualTo(1);
+            assertThat(projection.passwordRead).isFalse();
+            assertThat(projection.columns).isLessThan(entity.columns);
+        }
+    }
+
+    private Measurement measure(String name, Supplier<List<LeaveRequestDto>> read) {
+        entityManager.clear();
+        statistics.clear();
+        RecordingInspector.STATEMENTS.clear();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        List<LeaveRequestDto> rows = read.get();
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        List<String> statements = new ArrayList<>(RecordingInspector.STATEMENTS);
+        int columns = statements.stream().distinct().mapToInt(ReadPathProjectionLoadTest::countSelectedColumns).sum();
+        boolean passwordRead = statements.stream().anyMatch(sql -> sql.toLowerCase(Locale.ROOT).contains("password_hash"));
+        return new Measurement(name, rows.size(), statistics.getPrepareStatementCount(), columns, passwordRead,
+                allocated, elapsed / 1_000_000.0);
+    }
+
+    private static int countSelectedColumns(String sql) {
+        String lower = sql.toLowerCase(Locale.ROOT);
+        String selectList = lower.substring(lower.indexOf("select") + 6, lower.indexOf(" from "));
+        int depth = 0;
+        int columns = 1;
+        for (char c : selectList.toCharArray()) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                columns++;
+            }
+        }
+        return columns;
+    }
+
+    private static LeaveRequestDto toDto(LeaveRequest request) {
+        LeaveRequestDto dto = new LeaveRequestDto();
+        dto.setId(request.getId());
+        dto.setUserId(request.getUser().getId());
+        dto.setStartDate(request.getStartDate());
+        dto.setEndDate(request.getEndDate());
+        dto.setWorkingDays(request.getWorkingDays());
+        dto.setLeaveType(request.getLeaveType());
+        dto.setStatus(request.getStatus());
+        dto.setComment(request.getComment());
+        dto.setCreatedAt(request.getCreatedAt());
+        dto.setUserEmail(request.getUser().getEmail());
+        dto.setUserFullName(request.getUser().getFirstName() + " " + request.getUser().getLastName());
+        return dto;
+    }
+
+    private void seed() {
+        List<Object[]> users = new ArrayList<>(USERS);
+        Timestamp createdAt = Timestamp.valueOf(FIRST_DAY.atStartOfDay());
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "employee" + id + "@company.com", "$2a$10$abcdefghijklmnopqrstuvwxyz0123456789abcdefghijklmn",
+                    "First" + id, "Last" + id, "EMPLOYEE", createdAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password_hash, first_name, last_name, role, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", users);
+
+        Random random = new Random(42);
+        LeaveStatus[] statuses = {LeaveStatus.APPROVED, LeaveStatus.APPROVED, LeaveStatus.REJECTED, LeaveStatus.CANCELLED};
+        List<Object[]> batch = new ArrayList<>(10_000);
+        for (long id = 1; id <= ROWS; id++) {
+            LocalDate start = FIRST_DAY.plusDays(random.nextInt(5 * 365));
+            LocalDate end = start.plusDays(random.nextInt(14));
+            LeaveStatus status = random.nextInt(100) == 0 ? LeaveStatus.PENDING : statuses[random.nextInt(statuses.length)];
+            batch.add(new Object[]{id, 1 + random.nextInt(USERS), Date.valueOf(start), Date.valueOf(end),
+                    LeaveRequest.countWorkingDays(start, end), random.nextInt(5) == 0 ? "UNPAID" : "PAID", status.name(),
+                    random.nextBoolean() ? "Family trip" : null, Timestamp.valueOf(start.minusDays(30).atStartOfDay())});
+            if (batch.size() == 10_000) {
+                insertRequests(batch);
+            }
+        }
+        insertRequests(batch);
+        logger.info("Seeded {} leave requests for {} users", ROWS, USERS);
+    }
+
+    private void insertRequests(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO leave_requests (id, user_id, start_date, end_date, working_days, leave_type, " +
+                "status, comment, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private record Measurement(String name, int rows, long statements, int columns, boolean passwordRead,
+                               long allocatedBytes, double millis) {
+
+        @Override
+        public String toString() {
+            return String.format("%-22s %7d rows, %5d statements, %2d columns/row, password_hash read: %-5s, %,14d bytes allocated, %8.1f ms",
+                    name, rows, statements, columns, passwordRead, allocatedBytes, millis);
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.vacation_management.loadtest;
+
+import com.example.vacation_management.VacationManagementApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application twice, with platform and with virtual request threads, and drives the same
+ * authenticated JDBC-backed endpoint at high concurrency. Disabled by default; run with
+ * {@code mvn test -Dtest=RequestThreadingLoadTest -Dloadtest=true}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class RequestThreadingLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestThreadingLoadTest.class);
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 500);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 20_000);
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    @Test
+    void compareVirtualAndPlatformRequestThreads() throws Exception {
+        Result platform = run("platform", "test");
+        Result virtual = run("virtual", "test,virtual-threads");
+
+        logger.info("{}", platform);
+        logger.info("{}", virtual);
+        assertThat(platform.errors).isZero();
+        assertThat(virtual.errors).isZero();
+    }
+
+    private Result run(String name, String profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(VacationManagementApplication.class)
+                .run("--spring.profiles.active=" + profiles,
+                        "--server.port=0",
+                        "--jwt.secret=loadTestSecretKey12345678901234567890123456789012345678901234567890",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest-" + name + ";MODE=PostgreSQL;NON_KEYWORDS=YEAR",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.springframework.web=INFO",
+                        "--logging.level.org.hibernate.SQL=INFO");
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder().executor(clients).version(HttpClient.Version.HTTP_1_1).build();
+            String token = login(http, baseUrl);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/leave-requests/my"))
+                    .header("Authorization", "Bearer " + token)
+                    .build();
+
+            drive(http, clients, request, WARMUP_REQUESTS);
+            return drive(http, clients, request, REQUESTS).named(name);
+        }
+    }
+
+    private static String login(HttpClient http, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"admin@company.com\",\"password\":\"admin123\"}"))
+                .build();
+        Matcher matcher = TOKEN.matcher(http.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        assertThat(matcher.find()).as("login returned a token").isTrue();
+        return matcher.group(1);
+    }
+
+    private static Result drive(HttpClient http, ExecutorService clients, HttpRequest request, int count)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[count];
+
+        long started = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            inFlight.acquire();
+            clients.execute(() -> {
+                long sent = System.nanoTime();
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - sent;
+                    inFlight.release();
+                }
+            });
+        }
+        inFlight.acquire(CONCURRENCY);
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        return new Result(count * 1e9 / elapsed, latencies[count / 2] / 1e6,
+                latencies[(int) (count * 0.99) - 1] / 1e6, errors.get());
+    }
+
+    private static final class Result {
+
+        private final double throughput;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final int errors;
+        private String name;
+
+        private Result(double throughput, double p50Millis, double p99Millis, int errors) {
+            this.throughput = throughput;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.errors = errors;
+        }
+
+        private Result named(String name) {
+            this.name = name;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s threads: %8.0f req/s, p50 %7.2f ms, p99 %7.2f ms, %d errors (%d requests, %d concurrent)",
+                    name, throughput, p50Millis, p99Millis, errors, REQUESTS, CONCURRENCY);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.example.vacation_management.repository;
+
+import com.example.vacation_management.dto.LeaveRequestDto;
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.LeaveStatus;
+import com.example.vacation_management.entity.LeaveType;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class LeaveRequestRepositoryTest {
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void yearQueriesMatchRequestsOverlappingTheYear() {
+        User anna = userRepository.save(new User("anna@company.com", "secret123", "Anna", "Nowak", Role.EMPLOYEE));
+        LeaveRequest acrossNewYear = leaveRequestRepository.save(
+                new LeaveRequest(anna, LocalDate.of(2030, 12, 30), LocalDate.of(2031, 1, 2), LeaveType.PAID));
+        LeaveRequest inYear = leaveRequestRepository.save(
+                new LeaveRequest(anna, LocalDate.of(2031, 6, 2), LocalDate.of(2031, 6, 6), LeaveType.PAID));
+        leaveRequestRepository.save(
+                new LeaveRequest(anna, LocalDate.of(2032, 1, 5), LocalDate.of(2032, 1, 6), LeaveType.PAID));
+
+        assertThat(leaveRequestRepository.findByYear(2031)).containsExactlyInAnyOrder(acrossNewYear, inYear);
+        assertThat(leaveRequestRepository.findByUserIdAndYear(anna.getId(), 2030)).containsExactly(acrossNewYear);
+        assertThat(leaveRequestRepository.countRequestsPerUserForYear(2031))
+                .singleElement().satisfies(row -> assertThat(row[1]).isEqualTo(2L));
+    }
+
+    @Test
+    void leaveRequestQueriesUseTheDeclaredIndexes() {
+        assertThat(explain("SELECT * FROM leave_requests WHERE user_id = 1 " +
+                "AND start_date <= DATE '2031-12-31' AND end_date >= DATE '2031-01-01'"))
+                .containsIgnoringCase("IDX_LEAVE_REQUESTS_USER_START");
+        assertThat(explain("SELECT * FROM leave_requests WHERE status = 'APPROVED' " +
+                "AND start_date <= DATE '2031-01-31' AND end_date >= DATE '2031-01-01'"))
+                .containsIgnoringCase("IDX_LEAVE_REQUESTS_STATUS_DATES");
+        assertThat(explain("SELECT * FROM leave_requests WHERE status = 'PENDING' ORDER BY created_at"))
+                .containsIgnoringCase("IDX_LEAVE_REQUESTS_STATUS_CREATED");
+        assertThat(explain("SELECT * FROM leave_requests " +
+                "WHERE start_date <= DATE '2031-12-31' AND end_date >= DATE '2031-01-01'"))
+                .containsIgnoringCase("IDX_LEAVE_REQUESTS_DATES");
+    }
+
+    @Test
+    void dtoProjectionsCarryTheRequestAndItsOwnerInOneRow() {
+        User anna = userRepository.save(new User("anna@company.com", "secret123", "Anna", "Nowak", Role.EMPLOYEE));
+        LeaveRequest request = new LeaveRequest(anna, LocalDate.of(2031, 6, 2), LocalDate.of(2031, 6, 6), LeaveType.PAID);
+        request.setComment("Family trip");
+        leaveRequestRepository.save(request);
+
+        assertThat(leaveRequestRepository.findDtosByUserIdAndYear(anna.getId(), 2031)).singleElement().satisfies(dto -> {
+            assertThat(dto.getId()).isEqualTo(request.getId());
+            assertThat(dto.getUserId()).isEqualTo(anna.getId());
+            assertThat(dto.getWorkingDays()).isEqualTo(5);
+            assertThat(dto.getStatus()).isEqualTo(LeaveStatus.PENDING);
+            assertThat(dto.getComment()).isEqualTo("Family trip");
+            assertThat(dto.getUserEmail()).isEqualTo("anna@company.com");
+            assertThat(dto.getUserFullName()).isEqualTo("Anna Nowak");
+        });
+        assertThat(leaveRequestRepository.findPendingDtos()).extracting(LeaveRequestDto::getId).containsExactly(request.getId());
+        assertThat(leaveRequestRepository.findDtosByIdGreaterThan(request.getId(), Limit.of(10))).isEmpty();
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+    private UserRepository userRepository;
+    private JwtService jwtService;
+    private UserProfileCache userProfileCache;
+    private PasswordVerifier passwordVerifier;
+    private PasswordEncoder passwordEncoder;
+    private AuthService authService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        JwtClaimsCache jwtClaimsCache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(jwtClaimsCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtClaimsCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(jwtClaimsCache, "ttl", Duration.ofMinutes(5));
+        jwtClaimsCache.init();
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret",
+                "mySecretKey123456789012345678901234567890123456789012345678901234567890");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtService, "jwtClaimsCache", jwtClaimsCache);
+        jwtService.init();
+
+        userProfileCache = new UserProfileCache();
+        ReflectionTestUtils.setField(userProfileCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userProfileCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(userProfileCache, "ttl", Duration.ofMinutes(5));
+        userProfileCache.init();
+
+        userRepository = mock(UserRepository.class);
+        passwordVerifier = mock(PasswordVerifier.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "userProfileCache", userProfileCache);
+        ReflectionTestUtils.setField(authService, "passwordVerifier", passwordVerifier);
+        ReflectionTestUtils.setField(authService, "passwordEncoder", passwordEncoder);
+
+        user = new User("anna@company.com", "hash", "Anna", "Nowak", Role.EMPLOYEE);
+        user.setId(7L);
+    }
+
+    @Test
+    void profileFromClaimsMatchesDatabaseProfileWithoutQueryingIt() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        Claims claims = jwtService.verifyToken(jwtService.generateToken(user));
+
+        Map<String, Object> fromClaims = authService.getProfileFromClaims(claims);
+
+        verifyNoInteractions(userRepository);
+        assertThat(fromClaims).isEqualTo(authService.getFreshProfile(7L));
+    }
+
+    @Test
+    void freshProfileIsCachedUntilEvicted() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        authService.getFreshProfile(7L);
+        authService.getFreshProfile(7L);
+        verify(userRepository, times(1)).findById(7L);
+
+        user.setLastName("Kowalska");
+        userProfileCache.evict(7L);
+
+        assertThat(authService.getFreshProfile(7L)).containsEntry("lastName", "Kowalska");
+        verify(userRepository, times(2)).findById(7L);
+    }
+
+    @Test
+    void changePasswordReplacesOnlyTheHashThatWasVerified() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(passwordVerifier.matches("old", "hash")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenReturn("newHash");
+        when(userRepository.replacePassword(7L, "hash", "newHash")).thenReturn(1);
+
+        authService.changePassword(7L, "old", "new");
+
+        verify(userRepository).replacePassword(7L, "hash", "newHash");
+    }
+
+    @Test
+    void changePasswordFailsWhenTheHashChangedDuringVerification() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(passwordVerifier.matches("old", "hash")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenReturn("newHash");
+        when(userRepository.replacePassword(7L, "hash", "newHash")).thenReturn(0);
+
+        assertThatThrownBy(() -> authService.changePassword(7L, "old", "new"))
+                .hasMessage("Password was changed concurrently, please retry");
+    }
+
+    @Test
+    void changePasswordWithWrongOldPasswordNeverWrites() {
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(passwordVerifier.matches("wrong", "hash")).thenReturn(false);
+
+        assertThatThrownBy(() -> authService.changePassword(7L, "wrong", "new")).hasMessage("Invalid old password");
+        verifyNoInteractions(passwordEncoder);
+        verify(userRepository, never()).replacePassword(any(), any(), any());
+    }
+
+}
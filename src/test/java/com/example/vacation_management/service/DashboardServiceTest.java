@@ -0,0 +1,297 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.dto.UserDto;
+import com.example.vacation_management.entity.LeaveBalance;
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.LeaveStatus;
+import com.example.vacation_management.entity.LeaveType;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.event.LeaveRequestChangedEvent;
+import com.example.vacation_management.repository.LeaveBalanceRepository;
+import com.example.vacation_management.repository.LeaveRequestRepository;
+import com.example.vacation_management.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({DashboardService.class, LeaveCalendarCache.class, OperationMetrics.class, SimpleMeterRegistry.class,
+        UserService.class, UserProfileCache.class, AggregateVersions.class})
+class DashboardServiceTest {
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private LeaveCalendarCache leaveCalendarCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AggregateVersions aggregateVersions;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PollBetweenAfterCommitListeners pollBetweenListeners;
+
+    @Test
+    void teamSummaryQueryCountDoesNotGrowWithHeadcount() {
+        createEmployees(0, 5);
+        long smallTeamQueries = countQueries();
+
+        createEmployees(5, 50);
+        long largeTeamQueries = countQueries();
+
+        assertThat(largeTeamQueries).isEqualTo(smallTeamQueries);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void teamSummaryKeepsPerMemberFields() {
+        createEmployees(0, 3);
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<String, Object> summary = dashboardService.getTeamSummary();
+
+        assertThat(summary).containsEntry("totalEmployees", 3);
+        List<Map<String, Object>> members = (List<Map<String, Object>>) summary.get("teamMembers");
+        assertThat(members).hasSize(3);
+        assertThat(members.get(0)).containsKeys("userId", "name", "email", "totalDays", "usedDays",
+                "remainingDays", "currentlyOnLeave", "totalRequests");
+        assertThat(members).allSatisfy(member -> {
+            assertThat(member.get("totalDays")).isEqualTo(26);
+            assertThat(member.get("totalRequests")).isEqualTo(1L);
+            assertThat(member.get("currentlyOnLeave")).isEqualTo(true);
+        });
+    }
+
+    @Test
+    void dashboardStatsUseCountQueries() {
+        createEmployees(0, 4);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Map<String, Object> stats = dashboardService.getDashboardStats();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(stats).containsEntry("totalEmployees", 4L)
+                .containsEntry("approvedRequests", 4L)
+                .containsEntry("pendingRequests", 0L)
+                .containsEntry("activeLeaves", 4L)
+                .containsEntry("upcomingLeaves", 4L);
+    }
+
+    @Test
+    void calendarIsRebuiltOnlyForMonthsTouchedByAChange() {
+        leaveCalendarCache.invalidateAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<String, Object> january = dashboardService.getLeaveCalendar(2031, 1);
+        Map<String, Object> march = dashboardService.getLeaveCalendar(2031, 3);
+        assertThat(dashboardService.getLeaveCalendar(2031, 1)).isSameAs(january);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        leaveCalendarCache.onLeaveRequestChanged(new LeaveRequestChangedEvent(1L, 1L, LeaveStatus.PENDING,
+                LocalDate.of(2031, 3, 3), LocalDate.of(2031, 3, 4)));
+        leaveCalendarCache.onLeaveRequestChanged(new LeaveRequestChangedEvent(2L, 1L, LeaveStatus.APPROVED,
+                LocalDate.of(2030, 12, 30), LocalDate.of(2031, 1, 2)));
+
+        assertThat(dashboardService.getLeaveCalendar(2031, 3)).isSameAs(march);
+        assertThat(dashboardService.getLeaveCalendar(2031, 1)).isNotSameAs(january);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compactCalendarListsUsersAndLeavesOnce() {
+        leaveCalendarCache.invalidateAll();
+        User anna = userRepository.save(new User("anna@company.com", "secret123", "Anna", "Nowak", Role.EMPLOYEE));
+        User piotr = userRepository.save(new User("piotr@company.com", "secret123", "Piotr", "Lis", Role.EMPLOYEE));
+        createApprovedLeave(anna, LocalDate.of(2031, 1, 28), LocalDate.of(2031, 2, 3));
+        createApprovedLeave(anna, LocalDate.of(2031, 2, 10), LocalDate.of(2031, 2, 10));
+        createApprovedLeave(piotr, LocalDate.of(2031, 2, 2), LocalDate.of(2031, 2, 4));
+        createApprovedLeave(piotr, LocalDate.of(2031, 2, 27), LocalDate.of(2031, 3, 5));
+        entityManager.flush();
+
+        Map<String, Object> calendar = dashboardService.getCompactLeaveCalendar(2031, 2);
+
+        assertThat((Map<Long, String>) calendar.get("users"))
+                .containsOnly(Map.entry(anna.getId(), "Anna Nowak"), Map.entry(piotr.getId(), "Piotr Lis"));
+        assertThat((List<Map<String, Object>>) calendar.get("leaves"))
+                .extracting(leave -> leave.get("days"))
+                .containsExactlyInAnyOrder(new int[]{1, 3}, new int[]{10, 10}, new int[]{2, 4}, new int[]{27, 28});
+        int[] dailyCounts = (int[]) calendar.get("dailyCounts");
+        assertThat(dailyCounts).hasSize(28);
+        assertThat(dailyCounts[0]).isEqualTo(1);
+        assertThat(dailyCounts[1]).isEqualTo(2);
+        assertThat(dailyCounts[4]).isZero();
+        assertThat(dailyCounts[9]).isEqualTo(1);
+        assertThat(dailyCounts[27]).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void renamingOrDeletingAUserDropsCachedCalendars() {
+        leaveCalendarCache.invalidateAll();
+        User anna = userRepository.save(new User("anna@company.com", "secret123", "Anna", "Nowak", Role.EMPLOYEE));
+        createApprovedLeave(anna, LocalDate.of(2031, 4, 7), LocalDate.of(2031, 4, 8));
+        entityManager.flush();
+        assertThat((Map<Long, String>) dashboardService.getCompactLeaveCalendar(2031, 4).get("users"))
+                .containsEntry(anna.getId(), "Anna Nowak");
+
+        UserDto renamed = new UserDto();
+        renamed.setEmail("anna@company.com");
+        renamed.setFirstName("Anna");
+        renamed.setLastName("Kowalska");
+        userService.updateUser(anna.getId(), renamed);
+        entityManager.flush();
+
+        assertThat((Map<Long, String>) dashboardService.getCompactLeaveCalendar(2031, 4).get("users"))
+                .containsEntry(anna.getId(), "Anna Kowalska");
+
+        leaveRequestRepository.deleteAll(leaveRequestRepository.findByUserId(anna.getId()));
+        userService.deleteUser(anna.getId());
+        entityManager.flush();
+
+        assertThat((Map<Long, String>) dashboardService.getCompactLeaveCalendar(2031, 4).get("users")).isEmpty();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @SuppressWarnings("unchecked")
+    void calendarPolledBetweenEvictionAndVersionBumpIsFresh() {
+        leaveCalendarCache.invalidateAll();
+        LocalDate day = LocalDate.of(2032, 5, 4);
+        Map<String, Object> stale = dashboardService.getLeaveCalendar(2032, 5);
+        String staleTag = calendarEtag();
+
+        User anna = userRepository.save(new User("poll@company.com", "secret123", "Anna", "Nowak", Role.EMPLOYEE));
+        LeaveRequest request = new LeaveRequest(anna, day, day, LeaveType.UNPAID);
+        request.setStatus(LeaveStatus.APPROVED);
+        request = leaveRequestRepository.save(request);
+
+        List<String> tags = new ArrayList<>();
+        List<Map<String, Object>> bodies = new ArrayList<>();
+        pollBetweenListeners.poll = () -> {
+            tags.add(calendarEtag());
+            bodies.add(dashboardService.getLeaveCalendar(2032, 5));
+        };
+        try {
+            eventPublisher.publishEvent(LeaveRequestChangedEvent.of(request));
+        } finally {
+            pollBetweenListeners.poll = () -> { };
+            leaveRequestRepository.delete(request);
+            userRepository.delete(anna);
+        }
+
+        assertThat(tags).containsExactly(staleTag);
+        assertThat(bodies).hasSize(1);
+        assertThat(bodies.get(0)).isNotSameAs(stale);
+        assertThat((Map<LocalDate, List<Map<String, Object>>>) bodies.get(0).get("dailyLeaves")).containsKey(day);
+        assertThat(calendarEtag()).isNotEqualTo(staleTag);
+    }
+
+    private String calendarEtag() {
+        return aggregateVersions.etag("calendar/2032/5/false",
+                AggregateVersions.Aggregate.LEAVE_REQUESTS, AggregateVersions.Aggregate.USERS);
+    }
+
+    private void createApprovedLeave(User user, LocalDate startDate, LocalDate endDate) {
+        LeaveRequest request = new LeaveRequest(user, startDate, endDate, LeaveType.PAID);
+        request.setStatus(LeaveStatus.APPROVED);
+        leaveRequestRepository.save(request);
+    }
+
+    private long countQueries() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        dashboardService.getTeamSummary();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createEmployees(int from, int to) {
+        int year = LocalDate.now().getYear();
+        for (int i = from; i < to; i++) {
+            User user = userRepository.save(new User("employee" + i + "@company.com", "secret123",
+                    "First" + i, "Last" + i, Role.EMPLOYEE));
+            leaveBalanceRepository.save(new LeaveBalance(user, 26, year));
+
+            LeaveRequest request = new LeaveRequest(user, LocalDate.now(), LocalDate.now().plusDays(1), LeaveType.PAID);
+            request.setStatus(LeaveStatus.APPROVED);
+            leaveRequestRepository.save(request);
+        }
+    }
+
+    /**
+     * Stands in for a calendar poll that lands after the cache eviction but before the version bump.
+     */
+    @TestConfiguration
+    static class PollBetweenAfterCommitListeners {
+
+        private Runnable poll = () -> { };
+
+        @Order(0)
+        @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+        public void onLeaveRequestChanged(LeaveRequestChangedEvent event) {
+            poll.run();
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtClaimsCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private JwtClaimsCache jwtClaimsCache;
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtClaimsCache = new JwtClaimsCache();
+        ReflectionTestUtils.setField(jwtClaimsCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtClaimsCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(jwtClaimsCache, "ttl", TTL);
+        jwtClaimsCache.init();
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret",
+                "mySecretKey123456789012345678901234567890123456789012345678901234567890");
+        ReflectionTestUtils.setField(jwtService, "jwtClaimsCache", jwtClaimsCache);
+        jwtService.init();
+
+        user = new User("employee@company.com", "secret123", "Jan", "Kowalski", Role.EMPLOYEE);
+        user.setId(42L);
+    }
+
+    @Test
+    void longLivedTokenIsCachedForTheConfiguredTtl() {
+        String token = tokenValidFor(Duration.ofHours(24));
+
+        jwtService.verifyToken(token);
+
+        assertThat(jwtClaimsCache.expiresAfter(token)).hasValueSatisfying(remaining ->
+                assertThat(remaining).isLessThanOrEqualTo(TTL).isGreaterThan(TTL.minusSeconds(5)));
+    }
+
+    @Test
+    void tokenExpiringBeforeTheTtlIsCachedOnlyUntilItsExpiry() {
+        String token = tokenValidFor(Duration.ofSeconds(30));
+
+        jwtService.verifyToken(token);
+
+        assertThat(jwtClaimsCache.expiresAfter(token)).hasValueSatisfying(remaining ->
+                assertThat(remaining).isLessThanOrEqualTo(Duration.ofSeconds(30)).isGreaterThan(Duration.ZERO));
+    }
+
+    @Test
+    void tamperedTokenMissesTheCacheAndFailsVerification() {
+        String token = tokenValidFor(Duration.ofHours(24));
+        assertThat(jwtService.extractRole(token)).isEqualTo("EMPLOYEE");
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("EMPLOYEE", "ADMIN");
+        String tampered = parts[0] + "." +
+                Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8)) +
+                "." + parts[2];
+
+        assertThatThrownBy(() -> jwtService.extractRole(tampered)).hasMessage("Invalid JWT token");
+        assertThat(jwtClaimsCache.expiresAfter(tampered)).isEmpty();
+        assertThat(jwtService.extractRole(token)).isEqualTo("EMPLOYEE");
+    }
+
+    private String tokenValidFor(Duration lifetime) {
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", lifetime.toMillis());
+        return jwtService.generateToken(user);
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.entity.LeaveBalance;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.LeaveBalanceRepository;
+import com.example.vacation_management.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({LeaveBalanceService.class, AggregateVersions.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LeaveBalanceServiceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveBalanceServiceTest.class);
+
+    private static final int YEAR = 2030;
+    private static final int TOTAL_DAYS = 20;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("balance@company.com", "secret123", "Anna", "Nowak", Role.EMPLOYEE));
+        leaveBalanceRepository.save(new LeaveBalance(user, TOTAL_DAYS, YEAR));
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaveBalanceRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentDeductionsNeverOverdraw() throws Exception {
+        int threads = 16;
+        int attemptsPerThread = 5;
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger rejections = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                    try {
+                        leaveBalanceService.useDays(user.getId(), YEAR, 1);
+                        successes.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rejections.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        int attempts = threads * attemptsPerThread;
+        logger.info("{} deductions ({} succeeded, {} rejected) in {} ms, {} ops/s", attempts, successes.get(),
+                rejections.get(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                String.format("%.0f", attempts / (elapsedNanos / 1_000_000_000.0)));
+
+        LeaveBalance balance = leaveBalanceRepository.findByUserIdAndYear(user.getId(), YEAR).orElseThrow();
+        assertThat(successes.get()).isEqualTo(TOTAL_DAYS);
+        assertThat(rejections.get()).isEqualTo(attempts - TOTAL_DAYS);
+        assertThat(balance.getUsedDays()).isEqualTo(TOTAL_DAYS);
+        assertThat(balance.getRemainingDays()).isZero();
+    }
+
+    @Test
+    void deductionBeyondRemainingDaysIsRejected() {
+        leaveBalanceService.useDays(user.getId(), YEAR, 15);
+
+        assertThatThrownBy(() -> leaveBalanceService.useDays(user.getId(), YEAR, 6))
+                .hasMessage("Not enough remaining vacation days. Available: 5, requested: 6");
+    }
+
+    @Test
+    void returnedDaysNeverDropUsedBelowZero() {
+        leaveBalanceService.useDays(user.getId(), YEAR, 3);
+
+        LeaveBalance balance = leaveBalanceService.returnDays(user.getId(), YEAR, 5);
+
+        assertThat(balance.getUsedDays()).isZero();
+        assertThat(balance.getRemainingDays()).isEqualTo(TOTAL_DAYS);
+    }
+
+    @Test
+    void rolloverCreatesNextYearBalancesOnceWithCappedCarryOver() {
+        User piotr = userRepository.save(new User("piotr@company.com", "secret123", "Piotr", "Lis", Role.EMPLOYEE));
+        leaveBalanceRepository.save(new LeaveBalance(piotr, TOTAL_DAYS, YEAR));
+        leaveBalanceService.useDays(piotr.getId(), YEAR, 17);
+        User ewa = userRepository.save(new User("ewa@company.com", "secret123", "Ewa", "Mazur", Role.EMPLOYEE));
+        userRepository.save(new User("boss@company.com", "secret123", "Adam", "Boss", Role.ADMIN));
+
+        Map<String, Object> result = leaveBalanceService.rolloverToYear(YEAR + 1, 26, 5);
+        Map<String, Object> repeated = leaveBalanceService.rolloverToYear(YEAR + 1, 26, 5);
+
+        assertThat(result.get("created")).isEqualTo(3);
+        assertThat(repeated.get("created")).isEqualTo(0);
+        assertThat(leaveBalanceRepository.findByYear(YEAR + 1)).hasSize(3);
+        assertThat(leaveBalanceRepository.findByUserIdAndYear(user.getId(), YEAR + 1).orElseThrow().getTotalDays())
+                .isEqualTo(31);
+        LeaveBalance piotrBalance = leaveBalanceRepository.findByUserIdAndYear(piotr.getId(), YEAR + 1).orElseThrow();
+        assertThat(piotrBalance.getTotalDays()).isEqualTo(29);
+        assertThat(piotrBalance.getUsedDays()).isZero();
+        assertThat(piotrBalance.getRemainingDays()).isEqualTo(29);
+        assertThat(leaveBalanceRepository.findByUserIdAndYear(ewa.getId(), YEAR + 1).orElseThrow().getTotalDays())
+                .isEqualTo(26);
+    }
+
+}
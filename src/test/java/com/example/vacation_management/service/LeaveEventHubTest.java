@@ -0,0 +1,122 @@
+package com.example.vacation_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaveEventHubTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private LeaveEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new LeaveEventHub();
+        ReflectionTestUtils.setField(hub, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(hub, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(hub, "operationMetrics", new OperationMetrics(meterRegistry));
+        ReflectionTestUtils.setField(hub, "bufferSize", 4);
+        ReflectionTestUtils.setField(hub, "replaySize", 8);
+        ReflectionTestUtils.setField(hub, "timeout", Duration.ofMinutes(1));
+        hub.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hub.shutdown();
+    }
+
+    @Test
+    void resumesAfterLastEventIdAndResetsUnknownIds() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(null);
+        hub.register(first, null);
+        for (long id = 1; id <= 3; id++) {
+            hub.publish("created", Map.of("requestId", id));
+        }
+        first.awaitFrames(3);
+        Matcher firstId = EVENT_ID.matcher(first.frames.get(0));
+        assertThat(firstId.find()).isTrue();
+
+        RecordingEmitter resumed = new RecordingEmitter(null);
+        hub.register(resumed, firstId.group(1));
+        resumed.awaitFrames(2);
+        assertThat(resumed.frames.get(0)).contains("\"requestId\":2");
+        assertThat(resumed.frames.get(1)).contains("\"requestId\":3");
+
+        RecordingEmitter stale = new RecordingEmitter(null);
+        hub.register(stale, "previous-process-7");
+        stale.awaitFrames(1);
+        assertThat(stale.frames.get(0)).contains("event:reset");
+    }
+
+    @Test
+    void disconnectsSubscriberWhoseBufferOverflows() throws Exception {
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter healthy = new RecordingEmitter(null);
+        hub.register(stalled, null);
+        hub.register(healthy, null);
+
+        for (int id = 1; id <= 10; id++) {
+            hub.publish("approved", Map.of("requestId", id));
+            healthy.awaitFrames(id);
+        }
+
+        assertThat(hub.getSubscriberCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("leave.events.disconnected").tag("reason", "slow_consumer").counter().count())
+                .isEqualTo(1);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch blockUntil;
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+
+        RecordingEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            frames.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        void awaitFrames(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (frames.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(frames).hasSize(count);
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.LeaveStatus;
+import com.example.vacation_management.entity.LeaveType;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.LeaveRequestRepository;
+import com.example.vacation_management.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static com.example.vacation_management.service.LeaveOccupancyIndex.Reservation.RESERVED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(LeaveOccupancyIndex.class)
+class LeaveOccupancyIndexTest {
+
+    private static final LocalDate BASE = LocalDate.now().plusDays(30);
+
+    @Autowired
+    private LeaveOccupancyIndex leaveOccupancyIndex;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("employee@company.com", "secret123", "Jan", "Kowalski", Role.EMPLOYEE));
+    }
+
+    @Test
+    void disjointLeavesInsideRangeDoNotBlockThirdRequest() {
+        approved(BASE, BASE.plusDays(2));
+        approved(BASE.plusDays(5), BASE.plusDays(7));
+        leaveOccupancyIndex.rebuildFromDatabase();
+
+        assertThat(leaveOccupancyIndex.maxOccupancy(BASE, BASE.plusDays(7))).isEqualTo(1);
+        assertThat(leaveOccupancyIndex.hasCapacity(BASE, BASE.plusDays(7))).isTrue();
+    }
+
+    @Test
+    void overlappingLeavesReachCapacity() {
+        approved(BASE, BASE.plusDays(4));
+        approved(BASE.plusDays(3), BASE.plusDays(6));
+        leaveOccupancyIndex.rebuildFromDatabase();
+
+        assertThat(leaveOccupancyIndex.hasCapacity(BASE.plusDays(4), BASE.plusDays(10))).isFalse();
+        assertThat(leaveOccupancyIndex.hasCapacity(BASE.plusDays(5), BASE.plusDays(10))).isTrue();
+        assertThat(leaveOccupancyIndex.tryReserve(99L, BASE.plusDays(3), BASE.plusDays(3)))
+                .isEqualTo(LeaveOccupancyIndex.Reservation.NO_CAPACITY);
+    }
+
+    @Test
+    void reserveAndRemoveTrackOccupancy() {
+        leaveOccupancyIndex.rebuildFromDatabase();
+
+        assertThat(leaveOccupancyIndex.tryReserve(1L, BASE, BASE.plusDays(2))).isEqualTo(RESERVED);
+        assertThat(leaveOccupancyIndex.tryReserve(2L, BASE.plusDays(2), BASE.plusDays(3))).isEqualTo(RESERVED);
+        assertThat(leaveOccupancyIndex.occupancyOn(BASE.plusDays(2))).isEqualTo(2);
+
+        leaveOccupancyIndex.remove(1L);
+        assertThat(leaveOccupancyIndex.occupancyOn(BASE.plusDays(2))).isEqualTo(1);
+        assertThat(leaveOccupancyIndex.occupancyOn(BASE)).isZero();
+    }
+
+    @Test
+    void secondReservationOfTheSameRequestIsReportedAndNotCounted() {
+        leaveOccupancyIndex.rebuildFromDatabase();
+
+        assertThat(leaveOccupancyIndex.tryReserve(1L, BASE, BASE.plusDays(2))).isEqualTo(RESERVED);
+        assertThat(leaveOccupancyIndex.tryReserve(1L, BASE, BASE.plusDays(2)))
+                .isEqualTo(LeaveOccupancyIndex.Reservation.ALREADY_BOOKED);
+        assertThat(leaveOccupancyIndex.occupancyOn(BASE)).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackReservationLeavesLaterBookingOfTheSameRequestAlone() {
+        leaveOccupancyIndex.rebuildFromDatabase();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transaction.executeWithoutResult(status -> {
+            assertThat(leaveOccupancyIndex.tryReserve(1L, BASE, BASE.plusDays(2))).isEqualTo(RESERVED);
+            leaveOccupancyIndex.remove(1L);
+            leaveOccupancyIndex.put(1L, BASE, BASE.plusDays(2));
+            status.setRollbackOnly();
+        });
+
+        assertThat(leaveOccupancyIndex.occupancyOn(BASE)).isEqualTo(1);
+    }
+
+    @Test
+    void leavesBeyondInitialWindowGrowTheIndex() {
+        leaveOccupancyIndex.rebuildFromDatabase();
+        LocalDate farFuture = LocalDate.now().plusYears(10);
+
+        leaveOccupancyIndex.put(7L, farFuture, farFuture.plusDays(1));
+
+        assertThat(leaveOccupancyIndex.occupancyOn(farFuture.plusDays(1))).isEqualTo(1);
+    }
+
+    @Test
+    void consistencyCheckDetectsDrift() {
+        approved(BASE, BASE.plusDays(4));
+        leaveOccupancyIndex.rebuildFromDatabase();
+        assertThat(leaveOccupancyIndex.findInconsistentDays(LocalDate.now(), BASE.plusDays(30))).isEmpty();
+
+        approved(BASE.plusDays(10), BASE.plusDays(11));
+        assertThat(leaveOccupancyIndex.findInconsistentDays(LocalDate.now(), BASE.plusDays(30)))
+                .containsExactly(BASE.plusDays(10), BASE.plusDays(11));
+    }
+
+    private void approved(LocalDate startDate, LocalDate endDate) {
+        LeaveRequest request = new LeaveRequest(user, startDate, endDate, LeaveType.UNPAID);
+        request.setStatus(LeaveStatus.APPROVED);
+        leaveRequestRepository.save(request);
+    }
+
+}
@@ -0,0 +1,256 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.dto.BulkLeaveResultDto;
+import com.example.vacation_management.dto.ExportFormat;
+import com.example.vacation_management.entity.LeaveBalance;
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.LeaveStatus;
+import com.example.vacation_management.entity.LeaveType;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.LeaveBalanceRepository;
+import com.example.vacation_management.repository.LeaveRequestRepository;
+import com.example.vacation_management.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({LeaveRequestService.class, LeaveBalanceService.class, LeaveOccupancyIndex.class, OperationMetrics.class, AggregateVersions.class,
+        SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+class LeaveRequestServiceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveRequestServiceTest.class);
+
+    private static final double MIN_BULK_SPEED_UP = 10.0;
+
+    private static final LocalDate MONDAY = LocalDate.of(2031, 3, 3).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    @Autowired
+    private LeaveOccupancyIndex leaveOccupancyIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void resetIndex() {
+        leaveOccupancyIndex.rebuildFromDatabase();
+    }
+
+    @Test
+    void bulkApproveChecksCapacityAndBalancesInStartDateOrder() {
+        User anna = createEmployee("anna");
+        User piotr = createEmployee("piotr");
+        User ewa = createEmployee("ewa");
+
+        LeaveRequest annaSecondWeek = createRequest(anna, MONDAY.plusWeeks(1), MONDAY.plusWeeks(2), LeaveType.PAID);
+        LeaveRequest annaFirstWeek = createRequest(anna, MONDAY, MONDAY.plusDays(4), LeaveType.PAID);
+        LeaveRequest piotrFirstWeek = createRequest(piotr, MONDAY, MONDAY.plusDays(4), LeaveType.PAID);
+        LeaveRequest ewaFirstWeek = createRequest(ewa, MONDAY.plusDays(2), MONDAY.plusDays(3), LeaveType.UNPAID);
+        LeaveRequest rejected = createRequest(ewa, MONDAY.plusWeeks(3), MONDAY.plusWeeks(3), LeaveType.UNPAID);
+        rejected.setStatus(LeaveStatus.REJECTED);
+        entityManager.flush();
+
+        List<BulkLeaveResultDto> results = leaveRequestService.processBulk(List.of(annaSecondWeek.getId(),
+                annaFirstWeek.getId(), piotrFirstWeek.getId(), ewaFirstWeek.getId(), rejected.getId(), -1L), "approve");
+
+        assertThat(results).extracting(BulkLeaveResultDto::getId).containsExactly(annaSecondWeek.getId(),
+                annaFirstWeek.getId(), piotrFirstWeek.getId(), ewaFirstWeek.getId(), rejected.getId(), -1L);
+        assertThat(results).extracting(BulkLeaveResultDto::isSuccess)
+                .containsExactly(false, true, true, false, false, false);
+        assertThat(results.get(0).getMessage()).startsWith("Not enough remaining vacation days");
+        assertThat(results.get(3).getMessage()).startsWith("Cannot approve: maximum 2 people");
+        assertThat(results.get(4).getMessage()).isEqualTo("Only pending requests can be approved");
+        assertThat(results.get(5).getMessage()).isEqualTo("Leave request not found with id: -1");
+
+        entityManager.clear();
+        assertThat(leaveRequestRepository.findById(annaFirstWeek.getId()).orElseThrow().getStatus())
+                .isEqualTo(LeaveStatus.APPROVED);
+        assertThat(leaveRequestRepository.findById(annaSecondWeek.getId()).orElseThrow().getStatus())
+                .isEqualTo(LeaveStatus.PENDING);
+        LeaveBalance annaBalance = leaveBalanceRepository.findByUserIdAndYear(anna.getId(), MONDAY.getYear()).orElseThrow();
+        assertThat(annaBalance.getUsedDays()).isEqualTo(5);
+        assertThat(annaBalance.getRemainingDays()).isEqualTo(5);
+        assertThat(leaveOccupancyIndex.occupancyOn(MONDAY.plusDays(2))).isEqualTo(2);
+    }
+
+    @Test
+    void bulkRejectOnlyTouchesPendingRequests() {
+        User anna = createEmployee("anna");
+        LeaveRequest pending = createRequest(anna, MONDAY, MONDAY.plusDays(1), LeaveType.PAID);
+        LeaveRequest approved = createRequest(anna, MONDAY.plusWeeks(1), MONDAY.plusWeeks(1), LeaveType.PAID);
+        approved.setStatus(LeaveStatus.APPROVED);
+        entityManager.flush();
+
+        List<BulkLeaveResultDto> results = leaveRequestService.processBulk(
+                List.of(pending.getId(), approved.getId()), "reject");
+
+        assertThat(results).extracting(BulkLeaveResultDto::getStatus)
+                .containsExactly(LeaveStatus.REJECTED, LeaveStatus.APPROVED);
+        entityManager.clear();
+        assertThat(leaveRequestRepository.findById(pending.getId()).orElseThrow().getStatus())
+                .isEqualTo(LeaveStatus.REJECTED);
+        assertThat(leaveRequestRepository.findById(approved.getId()).orElseThrow().getStatus())
+                .isEqualTo(LeaveStatus.APPROVED);
+    }
+
+    @Test
+    void csvExportQuotesCommasQuotesAndNewlines() throws Exception {
+        User user = createEmployee("csv");
+        user.setFirstName("Anna \"Ania\"");
+        user.setLastName("Smith, Jr.");
+        LeaveRequest request = createRequest(user, MONDAY, MONDAY.plusDays(1), LeaveType.UNPAID);
+        request.setComment("line one\nline two");
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = leaveRequestService.exportByYear(MONDAY.getYear(), ExportFormat.CSV, out);
+
+        assertThat(rows).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .startsWith("id,userId,userEmail,userFullName,startDate,endDate,workingDays,leaveType,status,createdAt,comment\n" +
+                        request.getId() + "," + user.getId() + ",csv@company.com,\"Anna \"\"Ania\"\" Smith, Jr.\"," +
+                        MONDAY + "," + MONDAY.plusDays(1) + ",2,UNPAID,PENDING,")
+                .endsWith(",\"line one\nline two\"\n");
+    }
+
+    @Test
+    void ndjsonExportWritesOneObjectPerLine() throws Exception {
+        User user = createEmployee("ndjson");
+        LeaveRequest first = createRequest(user, MONDAY, MONDAY, LeaveType.UNPAID);
+        LeaveRequest second = createRequest(user, MONDAY.plusWeeks(1), MONDAY.plusWeeks(1), LeaveType.PAID);
+        createRequest(user, MONDAY.plusYears(1), MONDAY.plusYears(1), LeaveType.UNPAID);
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = leaveRequestService.exportByYear(MONDAY.getYear(), ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("id").asLong()).isEqualTo(first.getId());
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(second.getId());
+        assertThat(objectMapper.readTree(lines[1]).get("userEmail").asText()).isEqualTo("ndjson@company.com");
+    }
+
+    @Test
+    void exportOfAnEmptyYearWritesOnlyTheCsvHeader() throws Exception {
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        assertThat(leaveRequestService.exportByYear(1999, ExportFormat.CSV, csv)).isZero();
+        assertThat(leaveRequestService.exportByYear(1999, ExportFormat.NDJSON, ndjson)).isZero();
+
+        assertThat(csv.toString(StandardCharsets.UTF_8)).startsWith("id,userId,").endsWith(",comment\n").hasLineCount(1);
+        assertThat(ndjson.size()).isZero();
+    }
+
+    @Test
+    void bulkApproveLeavesBookingOfAConcurrentApprovalInPlace() {
+        User anna = createEmployee("anna");
+        LeaveRequest request = createRequest(anna, MONDAY, MONDAY.plusDays(1), LeaveType.UNPAID);
+        entityManager.flush();
+        leaveOccupancyIndex.put(request.getId(), request.getStartDate(), request.getEndDate());
+
+        List<BulkLeaveResultDto> results = leaveRequestService.processBulk(List.of(request.getId()), "approve");
+
+        assertThat(results.get(0).isSuccess()).isFalse();
+        assertThat(results.get(0).getMessage()).isEqualTo("Request was modified concurrently");
+        assertThat(leaveOccupancyIndex.occupancyOn(MONDAY)).isEqualTo(1);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "loadtest", matches = "true")
+    void bulkApproveOutperformsApprovingOneByOne() {
+        int requestsPerRun = 300;
+        int maxConcurrent = leaveOccupancyIndex.getMaxConcurrent();
+        ReflectionTestUtils.setField(leaveOccupancyIndex, "maxConcurrent", 2 * requestsPerRun);
+        try {
+            List<Long> loopIds = createPendingRequests("loop", requestsPerRun);
+            List<Long> bulkIds = createPendingRequests("bulk", requestsPerRun);
+            entityManager.flush();
+            entityManager.clear();
+
+            long loopStart = System.nanoTime();
+            for (Long id : loopIds) {
+                leaveRequestService.approveRequest(id);
+                entityManager.flush();
+            }
+            long loopNanos = System.nanoTime() - loopStart;
+
+            long bulkStart = System.nanoTime();
+            List<BulkLeaveResultDto> results = leaveRequestService.processBulk(bulkIds, "approve");
+            long bulkNanos = System.nanoTime() - bulkStart;
+
+            double speedUp = (double) loopNanos / bulkNanos;
+            logger.info("Approved {} requests: one by one {} ms, bulk {} ms ({}x)", requestsPerRun,
+                    TimeUnit.NANOSECONDS.toMillis(loopNanos), TimeUnit.NANOSECONDS.toMillis(bulkNanos),
+                    String.format("%.1f", speedUp));
+            assertThat(results).allMatch(BulkLeaveResultDto::isSuccess);
+            assertThat(speedUp).isGreaterThanOrEqualTo(MIN_BULK_SPEED_UP);
+        } finally {
+            ReflectionTestUtils.setField(leaveOccupancyIndex, "maxConcurrent", maxConcurrent);
+        }
+    }
+
+    private List<Long> createPendingRequests(String prefix, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = createEmployee(prefix + i);
+            LocalDate start = MONDAY.plusDays(i % 60);
+            ids.add(createRequest(user, start, start.plusDays(2), LeaveType.PAID).getId());
+        }
+        return ids;
+    }
+
+    private User createEmployee(String name) {
+        User user = userRepository.save(new User(name + "@company.com", "secret123", name, "Test", Role.EMPLOYEE));
+        leaveBalanceRepository.save(new LeaveBalance(user, 10, MONDAY.getYear()));
+        return user;
+    }
+
+    private LeaveRequest createRequest(User user, LocalDate startDate, LocalDate endDate, LeaveType leaveType) {
+        return leaveRequestRepository.save(new LeaveRequest(user, startDate, endDate, leaveType));
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.vacation_management.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottle = new LoginThrottle();
+        ReflectionTestUtils.setField(loginThrottle, "operationMetrics", new OperationMetrics(meterRegistry));
+        ReflectionTestUtils.setField(loginThrottle, "ipBurst", 10);
+        ReflectionTestUtils.setField(loginThrottle, "ipPerMinute", 1);
+        ReflectionTestUtils.setField(loginThrottle, "emailBurst", 3);
+        ReflectionTestUtils.setField(loginThrottle, "emailPerMinute", 1);
+        ReflectionTestUtils.setField(loginThrottle, "maxTracked", 1000L);
+        ReflectionTestUtils.setField(loginThrottle, "idleTimeout", Duration.ofMinutes(15));
+        loginThrottle.init();
+    }
+
+    @Test
+    void emailBucketIsSharedAcrossCaseAndAddresses() {
+        loginThrottle.acquire("anna@company.com", "10.0.0.1");
+        loginThrottle.acquire("Anna@Company.com", "10.0.0.2");
+        loginThrottle.acquire("anna@company.com ", "10.0.0.3");
+
+        assertThatThrownBy(() -> loginThrottle.acquire("anna@company.com", "10.0.0.4"))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        loginThrottle.acquire("piotr@company.com", "10.0.0.4");
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "email").count()).isEqualTo(1);
+    }
+
+    @Test
+    void ipBucketLimitsSprayingAcrossEmails() {
+        for (int i = 0; i < 10; i++) {
+            loginThrottle.acquire("user" + i + "@company.com", "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> loginThrottle.acquire("user10@company.com", "10.0.0.1"))
+                .isInstanceOf(ResponseStatusException.class);
+        loginThrottle.acquire("user10@company.com", "10.0.0.2");
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "ip").count()).isEqualTo(1);
+    }
+
+}
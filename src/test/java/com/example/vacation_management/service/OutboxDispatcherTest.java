@@ -0,0 +1,177 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.entity.LeaveStatus;
+import com.example.vacation_management.entity.OutboxEvent;
+import com.example.vacation_management.entity.OutboxStatus;
+import com.example.vacation_management.event.LeaveRequestChangedEvent;
+import com.example.vacation_management.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OutboxWriter.class, OutboxDispatcher.class, OperationMetrics.class, SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class, OutboxDispatcherTest.HandlerConfig.class})
+@TestPropertySource(properties = {"outbox.poll-interval=50ms", "outbox.initial-backoff=10ms", "outbox.max-attempts=3"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxDispatcherTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 6, 3);
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private RecordingHandler handler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        handler.reset();
+    }
+
+    @Test
+    void writesOutboxRowOnlyWhenTheChangeCommits() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> eventPublisher.publishEvent(changed(1L, LeaveStatus.APPROVED)));
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(changed(2L, LeaveStatus.APPROVED));
+            status.setRollbackOnly();
+        });
+
+        awaitDeliveries(1);
+        assertThat(handler.delivered).containsExactly("1:approved");
+        List<OutboxEvent> rows = outboxEventRepository.findAll();
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getPayload()).contains("\"requestId\":1", "\"status\":\"APPROVED\"", "\"startDate\":\"2030-06-03\"");
+        awaitStatus(rows.get(0).getId(), OutboxStatus.PROCESSED);
+    }
+
+    @Test
+    void retriesFailedEventWhileHoldingBackLaterEventsOfTheSameRequest() throws Exception {
+        handler.failuresLeft.put(1L, new AtomicInteger(2));
+        double retriesBefore = retries();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(changed(1L, LeaveStatus.APPROVED));
+            eventPublisher.publishEvent(changed(2L, LeaveStatus.APPROVED));
+            eventPublisher.publishEvent(changed(1L, LeaveStatus.CANCELLED));
+        });
+
+        awaitDeliveries(3);
+        assertThat(handler.delivered).containsExactly("2:approved", "1:approved", "1:cancelled");
+        assertThat(retries() - retriesBefore).isEqualTo(2);
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsAndReleasesTheRequest() throws Exception {
+        handler.failuresLeft.put(1L, new AtomicInteger(3));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(changed(1L, LeaveStatus.APPROVED));
+            eventPublisher.publishEvent(changed(1L, LeaveStatus.CANCELLED));
+        });
+
+        awaitDeliveries(1);
+        assertThat(handler.delivered).containsExactly("1:cancelled");
+        OutboxEvent failed = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getEventType().equals("approved")).findFirst().orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(3);
+        assertThat(failed.getLastError()).isEqualTo("handler unavailable");
+    }
+
+    private double retries() {
+        return meterRegistry.find("outbox.events").tag("outcome", "retry").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private static LeaveRequestChangedEvent changed(Long requestId, LeaveStatus status) {
+        return new LeaveRequestChangedEvent(requestId, 7L, status, DAY, DAY);
+    }
+
+    private void awaitDeliveries(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (handler.delivered.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(handler.delivered).hasSize(count);
+    }
+
+    private void awaitStatus(Long id, OutboxStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (outboxEventRepository.findById(id).orElseThrow().getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(outboxEventRepository.findById(id).orElseThrow().getStatus()).isEqualTo(status);
+    }
+
+    @TestConfiguration
+    static class HandlerConfig {
+
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+
+    static class RecordingHandler implements OutboxHandler {
+
+        private final List<String> delivered = new CopyOnWriteArrayList<>();
+        private final Map<Long, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean supports(OutboxEvent event) {
+            return OutboxWriter.LEAVE_REQUEST.equals(event.getAggregateType());
+        }
+
+        @Override
+        public void handle(OutboxEvent event) {
+            AtomicInteger failures = failuresLeft.get(event.getAggregateId());
+            if (failures != null && failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("handler unavailable");
+            }
+            delivered.add(event.getAggregateId() + ":" + event.getEventType());
+        }
+
+        void reset() {
+            delivered.clear();
+            failuresLeft.clear();
+        }
+    }
+
+}
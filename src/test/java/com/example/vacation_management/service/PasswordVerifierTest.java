@@ -0,0 +1,76 @@
+package com.example.vacation_management.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordVerifierTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordVerifier passwordVerifier;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+
+        meterRegistry = new SimpleMeterRegistry();
+        passwordVerifier = new PasswordVerifier();
+        ReflectionTestUtils.setField(passwordVerifier, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(passwordVerifier, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(passwordVerifier, "operationMetrics", new OperationMetrics(meterRegistry));
+        ReflectionTestUtils.setField(passwordVerifier, "threads", 1);
+        ReflectionTestUtils.setField(passwordVerifier, "queueCapacity", 1);
+        ReflectionTestUtils.setField(passwordVerifier, "timeout", Duration.ofSeconds(10));
+        passwordVerifier.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordVerifier.shutdown();
+    }
+
+    @Test
+    void rejectsImmediatelyOnceThePoolAndQueueAreFull() throws Exception {
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordVerifier.matches("a", "hash"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordVerifier.matches("b", "hash"));
+        while (meterRegistry.get("auth.password.queue").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> passwordVerifier.matches("c", "hash"))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(e -> ((ResponseStatusException) e).getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.counter("auth.password.rejected", "reason", "queue_full").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.verify").timers()).isNotEmpty();
+    }
+
+}
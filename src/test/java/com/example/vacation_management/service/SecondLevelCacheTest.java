@@ -0,0 +1,153 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.dto.UserDto;
+import com.example.vacation_management.entity.LeaveBalance;
+import com.example.vacation_management.entity.LeaveRequest;
+import com.example.vacation_management.entity.LeaveType;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.LeaveBalanceRepository;
+import com.example.vacation_management.repository.LeaveRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.example.vacation_management.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles({"test", "l2cache"})
+@Import({UserService.class, UserProfileCache.class, LeaveBalanceService.class, LeaveRequestService.class, LeaveOccupancyIndex.class,
+        OperationMetrics.class, AggregateVersions.class, LeaveCalendarCache.class, SimpleMeterRegistry.class,
+        JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    private static final int YEAR = 2030;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("cached@company.com", "secret123", "Anna", "Nowak", Role.EMPLOYEE));
+        leaveBalanceRepository.save(new LeaveBalance(user, 20, YEAR));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaveRequestRepository.deleteAllInBatch();
+        leaveBalanceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void naturalKeyLookupsAreServedFromCache() {
+        userRepository.findByEmail("cached@company.com");
+        leaveBalanceRepository.findByUserIdAndYear(user.getId(), YEAR);
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+
+        assertThat(userRepository.findByEmail("cached@company.com")).isPresent();
+        assertThat(leaveBalanceRepository.findByUserIdAndYear(user.getId(), YEAR)).isPresent();
+        assertThat(userRepository.findById(user.getId())).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstLookup);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void updatingAUserRefreshesCachedLookups() {
+        userRepository.findByEmail("cached@company.com");
+
+        userService.updateUser(user.getId(), new UserDto("renamed@company.com", null, "Anna", "Kowalska", null));
+
+        assertThat(userRepository.findByEmail("cached@company.com")).isEmpty();
+        assertThat(userRepository.findByEmail("renamed@company.com")).get()
+                .extracting(User::getLastName).isEqualTo("Kowalska");
+        assertThat(userService.getUserById(user.getId())).get()
+                .extracting(User::getLastName).isEqualTo("Kowalska");
+    }
+
+    @Test
+    void deletingAUserEvictsIt() {
+        leaveBalanceRepository.deleteAllInBatch();
+        userRepository.findById(user.getId());
+
+        userService.deleteUser(user.getId());
+
+        assertThat(userService.getUserById(user.getId())).isEmpty();
+        assertThat(userRepository.findByEmail("cached@company.com")).isEmpty();
+    }
+
+    @Test
+    void balanceChangesAreVisibleThroughTheCache() {
+        leaveBalanceRepository.findByUserIdAndYear(user.getId(), YEAR);
+
+        leaveBalanceService.useDays(user.getId(), YEAR, 5);
+        assertThat(leaveBalanceRepository.findByUserIdAndYear(user.getId(), YEAR)).get()
+                .extracting(LeaveBalance::getRemainingDays).isEqualTo(15);
+
+        leaveBalanceService.returnDays(user.getId(), YEAR, 2);
+        assertThat(leaveBalanceRepository.findByUserIdAndYear(user.getId(), YEAR)).get()
+                .extracting(LeaveBalance::getRemainingDays).isEqualTo(17);
+    }
+
+    @Test
+    void bulkApprovalEvictsBalancesItChargedThroughJdbc() {
+        LeaveRequest request = leaveRequestRepository.save(new LeaveRequest(user,
+                LocalDate.of(YEAR, 3, 4), LocalDate.of(YEAR, 3, 5), LeaveType.PAID));
+        leaveBalanceRepository.findByUserIdAndYear(user.getId(), YEAR);
+
+        leaveRequestService.processBulk(List.of(request.getId()), "approve");
+
+        assertThat(leaveBalanceRepository.findByUserIdAndYear(user.getId(), YEAR)).get()
+                .extracting(LeaveBalance::getRemainingDays).isEqualTo(20 - request.getWorkingDays());
+    }
+
+}
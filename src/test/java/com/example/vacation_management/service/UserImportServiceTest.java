@@ -0,0 +1,197 @@
+package com.example.vacation_management.service;
+
+import com.example.vacation_management.dto.UserDto;
+import com.example.vacation_management.entity.Role;
+import com.example.vacation_management.entity.User;
+import com.example.vacation_management.repository.LeaveBalanceRepository;
+import com.example.vacation_management.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({UserImportService.class, AggregateVersions.class, ValidationAutoConfiguration.class, UserImportServiceTest.PasswordConfig.class})
+@TestPropertySource(properties = "leave.import.chunk-size=50")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceTest {
+
+    @TestConfiguration
+    static class PasswordConfig {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        leaveBalanceRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importsUsersInBatchesAndReportsRowErrors() throws Exception {
+        userRepository.save(new User("existing@company.com", "secret123", "Jan", "Kowalski", Role.EMPLOYEE));
+
+        List<UserDto> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(new UserDto("employee" + i + "@company.com", "secret123", "Employee", "No" + i, null));
+        }
+        rows.set(10, new UserDto("existing@company.com", "secret123", "Jan", "Kowalski", null));
+        rows.set(20, new UserDto("employee0@company.com", "secret123", "Employee", "Again", null));
+        rows.set(30, new UserDto("not-an-email", "secret123", "Broken", "Email", null));
+        rows.set(40, new UserDto("short@company.com", "123", "Short", "Password", Role.ADMIN));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<String, Object> job = awaitCompletion(userImportService.startImport(rows));
+
+        assertThat(job.get("status")).isEqualTo("COMPLETED");
+        assertThat(job.get("processed")).isEqualTo(120);
+        assertThat(job.get("created")).isEqualTo(116);
+        assertThat(job.get("failed")).isEqualTo(4);
+        assertThat(job.get("progress")).isEqualTo(100);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) job.get("errors");
+        assertThat(errors).extracting(error -> error.get("row")).containsExactlyInAnyOrder(11, 21, 31, 41);
+
+        assertThat(userRepository.count()).isEqualTo(117);
+        assertThat(leaveBalanceRepository.count()).isEqualTo(116);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(232);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(40);
+    }
+
+    @Test
+    void csvRowsThatCannotBeParsedAreReportedPerRow() throws Exception {
+        String csv = "email,password,firstName,lastName,role\n" +
+                "anna@company.com,secret123,Anna,Nowak,EMPLOYEE\n" +
+                "piotr@company.com,secret123,Piotr,Wisniewski,MANAGER\n" +
+                "ewa@company.com,secret123,Ewa\n" +
+                "admin2@company.com,secret123,Adam,Admin,admin\n";
+
+        Map<String, Object> job = awaitCompletion(userImportService.startCsvImport(new StringReader(csv)));
+
+        assertThat(job.get("created")).isEqualTo(2);
+        assertThat(job.get("failed")).isEqualTo(2);
+        assertThat(userRepository.findByEmail("admin2@company.com")).get()
+                .extracting(User::getRole).isEqualTo(Role.ADMIN);
+        assertThat(leaveBalanceRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void parseCsvKeepsRowNumbersForBrokenLines() throws Exception {
+        Map<Integer, String> errors = new HashMap<>();
+        List<UserDto> rows = UserImportService.parseCsv(new StringReader(
+                "email,password,firstName,lastName,role\n" +
+                        "a@company.com,secret123,A,B\n" +
+                        "b@company.com,secret123,A,B,GUEST\n"), errors);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(1)).isNull();
+        assertThat(errors).containsEntry(2, "Unknown role: GUEST");
+    }
+
+    @Test
+    void parseCsvHandlesQuotedFields() throws Exception {
+        Map<Integer, String> errors = new HashMap<>();
+        List<UserDto> rows = UserImportService.parseCsv(new StringReader(
+                "email,password,firstName,lastName,role\r\n" +
+                        "\"smith@company.com\",\"pa,ss\"\"word\",John,\"Smith, Jr.\",EMPLOYEE\r\n" +
+                        "o.brien@company.com,secret123,\"Mary\nAnn\", \"O'Brien\" ,\r\n" +
+                        "bad@company.com,secret123,\"Bad\"x,Quote\n" +
+                        "last@company.com,secret123,Last,\"Unterminated\n"), errors);
+
+        assertThat(rows).hasSize(4);
+        assertThat(rows.get(0)).extracting(UserDto::getEmail, UserDto::getPassword, UserDto::getFirstName,
+                UserDto::getLastName, UserDto::getRole)
+                .containsExactly("smith@company.com", "pa,ss\"word", "John", "Smith, Jr.", Role.EMPLOYEE);
+        assertThat(rows.get(1)).extracting(UserDto::getFirstName, UserDto::getLastName, UserDto::getRole)
+                .containsExactly("Mary\nAnn", "O'Brien", null);
+        assertThat(rows.get(2)).isNull();
+        assertThat(rows.get(3)).isNull();
+        assertThat(errors).containsEntry(3, "Unexpected character after closing quote")
+                .containsEntry(4, "Unterminated quoted field");
+    }
+
+    @Test
+    void errorDetailsAreCappedButEveryFailureIsCounted() throws Exception {
+        List<UserDto> rows = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            rows.add(new UserDto("broken" + i, "secret123", "Broken", "No" + i, null));
+        }
+
+        Map<String, Object> job = awaitCompletion(userImportService.startImport(rows));
+
+        assertThat(job.get("failed")).isEqualTo(1200);
+        assertThat((List<?>) job.get("errors")).hasSize(1000);
+        assertThat(job.get("errorsOmitted")).isEqualTo(200);
+    }
+
+    @Test
+    void onlyTheNewestFinishedJobsAreRetained() throws Exception {
+        List<String> jobIds = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            jobIds.add((String) awaitCompletion(userImportService.startImport(List.of())).get("jobId"));
+        }
+
+        for (String jobId : jobIds.subList(0, 5)) {
+            assertThatThrownBy(() -> userImportService.getImportStatus(jobId))
+                    .hasMessage("Import job not found: " + jobId);
+        }
+        for (String jobId : jobIds.subList(5, 25)) {
+            assertThat(userImportService.getImportStatus(jobId)).containsEntry("status", "COMPLETED");
+        }
+    }
+
+    private Map<String, Object> awaitCompletion(Map<String, Object> job) throws InterruptedException {
+        String jobId = (String) job.get("jobId");
+        for (int attempt = 0; attempt < 300; attempt++) {
+            Map<String, Object> status = userImportService.getImportStatus(jobId);
+            if (status.get("finishedAt") != null) {
+                return status;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Import " + jobId + " did not finish");
+    }
+
+}